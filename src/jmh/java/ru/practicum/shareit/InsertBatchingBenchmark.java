@@ -0,0 +1,118 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+/**
+ * Вставка бронирований и комментариев на H2 (профиль test) с JDBC-батчами и без них (batch_size = 1).
+ * Пуловые sequence выдают id без round trip, поэтому разница — только в батчинге INSERT.
+ * Результат — время на одну строку.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InsertBatchingBenchmark {
+
+    private static final int ROWS = 5_000;
+    private static final int FLUSH_EVERY = 1_000;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private User user;
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        inTransaction(em -> {
+            user = User.builder().name("Bench").email("bench@test.io").build();
+            em.persist(user);
+            item = Item.builder().name("Bench").description("Bench").available(true).owner(user).build();
+            em.persist(item);
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void bookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        insert(i -> Booking.builder()
+                .start(start.plusMinutes(i))
+                .end(start.plusMinutes(i + 1))
+                .item(item)
+                .booker(user)
+                .status(Booking.BookingStatus.WAITING)
+                .ownerId(user.getId())
+                .build());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void comments() {
+        insert(i -> Comment.builder()
+                .text("Комментарий " + i)
+                .item(item)
+                .author(user)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    private void insert(IntFunction<Object> factory) {
+        inTransaction(em -> {
+            em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            for (int i = 0; i < ROWS; i++) {
+                // ссылки на отсоединённые user/item: для INSERT нужен только их id
+                em.persist(factory.apply(i));
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+    }
+
+    private void inTransaction(Consumer<EntityManager> action) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            action.accept(em);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+/**
+ * Потоки платформы против виртуальных потоков (профиль virtual-threads) на GET /bookings
+ * и GET /items/search: приложение на случайном порту, клиенты — потоки JMH.
+ * SampleTime даёт и пропускную способность (число замеров), и перцентили, включая p0.99.
+ * Запуск: mvn -Pjmh -DskipTests verify -Djmh.args="RequestMode -t 400"
+ * (к медленной БД — через -jvmArgs -Dspring.datasource.url=...).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(200)
+public class RequestModeBenchmark {
+
+    @Param({"test", "test,virtual-threads"})
+    public String profiles;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest bookings;
+    private HttpRequest search;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles(profiles.split(","))
+                .properties("server.port=0")
+                .run();
+        long bookerId = seed(context);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String base = "http://localhost:" + port;
+
+        client = HttpClient.newHttpClient();
+        bookings = HttpRequest.newBuilder(URI.create(base + "/bookings?size=10"))
+                .header("X-Sharer-User-Id", String.valueOf(bookerId))
+                .build();
+        search = HttpRequest.newBuilder(URI.create(base + "/items/search?size=10&text="
+                        + URLEncoder.encode("дрель", StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getBookings() throws IOException, InterruptedException {
+        return send(bookings);
+    }
+
+    @Benchmark
+    public int searchItems() throws IOException, InterruptedException {
+        return send(search);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            // ошибки не должны попадать в замеры как быстрые ответы
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private static long seed(ConfigurableApplicationContext context) {
+        UserRepository users = context.getBean(UserRepository.class);
+        ItemRepository items = context.getBean(ItemRepository.class);
+        BookingRepository bookings = context.getBean(BookingRepository.class);
+
+        User owner = users.save(User.builder().name("Owner").email("load-owner@test.io").build());
+        User booker = users.save(User.builder().name("Booker").email("load-booker@test.io").build());
+        List<Item> saved = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            saved.add(Item.builder()
+                    .name((i % 10 == 0 ? "Дрель " : "Инструмент ") + i)
+                    .description("Описание " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+        saved = items.saveAll(saved);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> list = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            list.add(Booking.builder()
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .item(saved.get(i % saved.size()))
+                    .booker(booker)
+                    .status(Booking.BookingStatus.WAITING)
+                    .build());
+        }
+        bookings.saveAll(list);
+        return booker.getId();
+    }
+}
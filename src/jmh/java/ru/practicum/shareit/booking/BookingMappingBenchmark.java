@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+/**
+ * Маппинг бронирований и сериализация ответа BookingController
+ * (BookingMapper.fromDto + Jackson — замена прежнего toHybridJson).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookingMappingBenchmark {
+
+    private Booking booking;
+    private BookingDto dto;
+    private List<BookingResponseDto> page;
+    private Item item;
+    private BookingShortDto last;
+    private BookingShortDto next;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1L).name("Owner").email("owner@test.io").build();
+        User booker = User.builder().id(2L).name("Booker").email("booker@test.io").build();
+        item = Item.builder().id(10L).name("Дрель").description("Ударная").available(true).owner(owner).build();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        booking = Booking.builder()
+                .id(100L)
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(Booking.BookingStatus.APPROVED)
+                .build();
+        dto = BookingMapper.toDto(booking);
+        last = BookingMapper.toShort(booking);
+        next = new BookingShortDto(101L, 3L);
+
+        page = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            page.add(BookingMapper.fromDto(dto));
+        }
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    @Benchmark
+    public BookingDto toDto() {
+        return BookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public BookingResponseDto fromDto() {
+        return BookingMapper.fromDto(dto);
+    }
+
+    @Benchmark
+    public ItemWithBookingsDto toItemWithBookings() {
+        return ItemMapper.toItemWithBookings(item, last, next, List.of());
+    }
+
+    /** Страница GET /bookings из 10 элементов в JSON. */
+    @Benchmark
+    public byte[] responsePageJson() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+
+/**
+ * Список бронирований владельца на H2 (профиль test): соединение с items по items.owner_id (до)
+ * против денормализованного bookings.owner_id (после), у каждого варианта — свой индекс.
+ * Прогон на 10M строк: -Djmh.args="BookingOwnerQuery -p bookings=10000000 -jvmArgs -Xmx8g".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingOwnerQueryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000000"})
+    public int bookings;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private long ownerId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // 100 бронирований на вещь, 10 вещей на владельца
+        int items = Math.max(bookings / 100, 1);
+        int users = Math.max(items / 10, 1);
+        jdbcTemplate.update("INSERT INTO users (id, name, email)"
+                + " SELECT X, CONCAT('User', X), CONCAT('bench-', X, '@test.io') FROM SYSTEM_RANGE(1, ?)", users);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id, version)"
+                + " SELECT X, CONCAT('Вещь', X), 'Описание', TRUE, MOD(X, ?) + 1, 0 FROM SYSTEM_RANGE(1, ?)",
+                users, items);
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, owner_id)"
+                + " SELECT X, DATEADD('HOUR', X, TIMESTAMP '2020-01-01 00:00:00'),"
+                + " DATEADD('HOUR', X + 2, TIMESTAMP '2020-01-01 00:00:00'),"
+                + " MOD(X, ?) + 1, MOD(X * 7, ?) + 1,"
+                + " CASE MOD(X, 5) WHEN 3 THEN 'WAITING' WHEN 4 THEN 'REJECTED' ELSE 'APPROVED' END,"
+                + " MOD(MOD(X, ?) + 1, ?) + 1"
+                + " FROM SYSTEM_RANGE(1, ?)", items, users, items, users, bookings);
+
+        // до: путь через вещи владельца; после: индекс из schema.sql
+        jdbcTemplate.execute("CREATE INDEX bench_items_owner_id ON items(owner_id, id)");
+        jdbcTemplate.execute("CREATE INDEX bench_bookings_item_start ON bookings(item_id, start_date DESC, id DESC)");
+        jdbcTemplate.execute("CREATE INDEX bench_bookings_owner_start ON bookings(owner_id, start_date DESC, id DESC)");
+        jdbcTemplate.execute("ANALYZE");
+        ownerId = users / 2 + 1;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> joinItemsOwner() {
+        return jdbcTemplate.queryForList("SELECT b.*, i.name FROM bookings b JOIN items i ON i.id = b.item_id"
+                + " WHERE i.owner_id = ? ORDER BY b.start_date DESC, b.id DESC LIMIT ?", ownerId, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> denormalizedOwnerId() {
+        return jdbcTemplate.queryForList("SELECT b.*, i.name FROM bookings b JOIN items i ON i.id = b.item_id"
+                + " WHERE b.owner_id = ? ORDER BY b.start_date DESC, b.id DESC LIMIT ?", ownerId, PAGE_SIZE + 1);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+/**
+ * ItemServiceImpl.getByOwner на H2 (профиль test): страница вещей с последним/ближайшим бронированием.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemGetByOwnerBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long ownerId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+        itemService = context.getBean(ItemService.class);
+
+        UserRepository users = context.getBean(UserRepository.class);
+        User owner = users.save(User.builder().name("Owner").email("bench-owner@test.io").build());
+        User booker = users.save(User.builder().name("Booker").email("bench-booker@test.io").build());
+        ownerId = owner.getId();
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(Item.builder().name("Вещь " + i).description("Описание").available(true).owner(owner).build());
+        }
+        items = context.getBean(ItemRepository.class).saveAll(items);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        for (Item item : items) {
+            for (int d = -5; d <= 5; d++) {
+                bookings.add(Booking.builder()
+                        .start(now.plusDays(d * 2L))
+                        .end(now.plusDays(d * 2L + 1))
+                        .item(item)
+                        .booker(booker)
+                        .status(Booking.BookingStatus.APPROVED)
+                        .build());
+            }
+        }
+        context.getBean(BookingRepository.class).saveAll(bookings);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemWithBookingsDto> getByOwner() {
+        return itemService.getByOwner(ownerId, 0, pageSize);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+/**
+ * InMemoryItemRepository.search на каталогах 10k/100k/1M вещей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InMemoryItemSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "дрель", "пила", "молоток", "лобзик", "шуруповёрт", "стремянка", "перфоратор", "рубанок",
+        "генератор", "насос", "компрессор", "болгарка", "уровень", "тиски", "фрезер", "паяльник"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    public int items;
+
+    @Param({"дрель", "ёрт", "компрессор ударный"})
+    public String text;
+
+    private InMemoryItemRepository repository;
+
+    @Setup
+    public void setUp() {
+        // abstract-класс: методы, не реализованные в нём, не вызываются.
+        // stubOnly — Mockito не запоминает вызовы: иначе 1M save и каждый search копятся в памяти и нагружают GC
+        repository = Mockito.mock(InMemoryItemRepository.class, Mockito.withSettings()
+                .stubOnly()
+                .useConstructor()
+                .defaultAnswer(Mockito.CALLS_REAL_METHODS));
+        User owner = User.builder().id(1L).name("Owner").email("owner@test.io").build();
+        Random random = new Random(42);
+        for (int i = 0; i < items; i++) {
+            repository.save(Item.builder()
+                    .name(WORDS[random.nextInt(WORDS.length)] + " " + i)
+                    .description(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)])
+                    .available(random.nextInt(10) > 0)
+                    .owner(owner)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return repository.search(text, PageRequest.of(0, 20)).getContent();
+    }
+}
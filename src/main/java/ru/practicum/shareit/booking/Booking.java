@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 /**
  * Модель бронирования.
  */
+@NamedEntityGraph(name = Booking.GRAPH_WITH_ITEM, attributeNodes = @NamedAttributeNode("item"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,8 +18,12 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "bookings")
 public class Booking {
+    /** граф загрузки вместе с вещью: нужна для проверки владельца и названия в ответе */
+    public static final String GRAPH_WITH_ITEM = "Booking.withItem";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -39,6 +44,18 @@ public class Booking {
     @Column(nullable = false)
     private BookingStatus status;
 
+    /** владелец вещи, копия items.owner_id: списки владельца читаются без соединения с items */
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    /** вставки в обход BookingService (тесты, импорт) получают владельца из вещи */
+    @PrePersist
+    void fillOwnerId() {
+        if (ownerId == null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
+
     public enum BookingStatus {
         WAITING, APPROVED, REJECTED, CANCELED
     }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import java.util.List;
+
+/**
+ * Пакетные операции над бронированиями в обход контекста персистентности.
+ */
+public interface BookingBatchRepository {
+
+    /**
+     * Compare-and-set статуса для набора бронирований одним JDBC-батчем (id по возрастанию).
+     * Возвращает число изменённых строк по каждому id в порядке ids.
+     */
+    int[] updateStatuses(List<Long> ids, Booking.BookingStatus expected, Booking.BookingStatus status);
+}
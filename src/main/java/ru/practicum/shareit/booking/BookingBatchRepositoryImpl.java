@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Реализация фрагмента {@link BookingBatchRepository}; JdbcTemplate работает в текущей JPA-транзакции.
+ */
+@RequiredArgsConstructor
+class BookingBatchRepositoryImpl implements BookingBatchRepository {
+
+    private static final String UPDATE_STATUS = "UPDATE bookings SET status = ? WHERE id = ? AND status = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] updateStatuses(List<Long> ids, Booking.BookingStatus expected, Booking.BookingStatus status) {
+        if (ids.isEmpty()) {
+            return new int[0];
+        }
+        List<Object[]> args = ids.stream()
+                .map(id -> new Object[]{status.name(), id, expected.name()})
+                .toList();
+        return jdbcTemplate.batchUpdate(UPDATE_STATUS, args);
+    }
+}
@@ -0,0 +1,249 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Календарь занятости вещей: незавершённые подтверждённые интервалы каждой вещи в отсортированных
+ * по началу массивах (начала и концы в микросекундах) и префиксный максимум концов — по нему
+ * бинарный поиск корректен, даже если в данных интервалы пересекаются.
+ * Заполняется из bookings при старте и дополняется после каждого подтверждения на этом узле.
+ * Полностью перечитывается раз в reload-ms: так уходят завершившиеся интервалы и появляются
+ * подтверждения и удаления с других узлов — /items/{id}/availability отстаёт от БД не больше чем на этот период.
+ * Удаление пользователя на этом узле правит календарь после коммита (BookingUserDeletedListener).
+ * Окончательная проверка пересечений — в БД при подтверждении.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingCalendar {
+
+    private final BookingRepository bookingRepository;
+    private final Clock clock;
+
+    private volatile ConcurrentMap<Long, Intervals> byItem = new ConcurrentHashMap<>();
+    /** подтверждения с номером после начала перечитывания — их запрос мог не увидеть */
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<Added> recent = new ConcurrentLinkedQueue<>();
+
+    private record Added(long seq, Long itemId, long start, long end) { }
+
+    /** Полное перечитывание незавершённых подтверждённых интервалов. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${shareit.bookings.calendar.reload-ms:60000}",
+            initialDelayString = "${shareit.bookings.calendar.reload-ms:60000}")
+    public void reload() {
+        long mark = sequence.get();
+        ConcurrentMap<Long, Intervals> fresh = new ConcurrentHashMap<>();
+        group(bookingRepository.findPeriodsByStatusAndEndAfter(Booking.BookingStatus.APPROVED, now()))
+                .forEach((itemId, list) -> fresh.put(itemId, Intervals.of(list)));
+        byItem = fresh;
+        replayAfter(mark, null);
+        recent.removeIf(added -> added.seq() <= mark);
+        log.debug("Booking calendar reloaded: {} items", fresh.size());
+    }
+
+    /** Перечитывает интервалы вещей itemIds (например, после удаления бронирований букера). */
+    public void reload(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        long mark = sequence.get();
+        Map<Long, List<long[]>> periods = group(bookingRepository.findPeriodsByItemIdsAndStatusAndEndAfter(
+                itemIds, Booking.BookingStatus.APPROVED, now()));
+        for (Long itemId : itemIds) {
+            List<long[]> list = periods.get(itemId);
+            if (list == null) {
+                byItem.remove(itemId);
+            } else {
+                byItem.put(itemId, Intervals.of(list));
+            }
+        }
+        replayAfter(mark, Set.copyOf(itemIds));
+    }
+
+    /** Забывает удалённые вещи. */
+    public void forgetItems(Collection<Long> itemIds) {
+        itemIds.forEach(byItem::remove);
+    }
+
+    /** Регистрирует подтверждённый интервал [start, end). */
+    public void add(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Added added = new Added(sequence.incrementAndGet(), itemId, micros(start), micros(end));
+        recent.add(added);
+        merge(added);
+    }
+
+    /** Пересекается ли [start, end) с подтверждённым интервалом вещи. */
+    public boolean isBusy(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Intervals intervals = byItem.get(itemId);
+        return intervals != null && intervals.overlaps(micros(start), micros(end));
+    }
+
+    /** Подтверждённые интервалы вещи, пересекающие [from, to), по возрастанию начала. */
+    public List<BookingPeriodDto> busy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Intervals intervals = byItem.get(itemId);
+        if (intervals == null) {
+            return List.of();
+        }
+        long lo = micros(from);
+        long hi = micros(to);
+        List<BookingPeriodDto> result = new ArrayList<>();
+        for (int i = intervals.firstEndingAfter(lo); i < intervals.size() && intervals.starts[i] < hi; i++) {
+            if (intervals.ends[i] > lo) {
+                result.add(new BookingPeriodDto(time(intervals.starts[i]), time(intervals.ends[i])));
+            }
+        }
+        return result;
+    }
+
+    /** Свободные промежутки внутри [from, to) — дополнение к busy. */
+    public List<BookingPeriodDto> free(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<BookingPeriodDto> result = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingPeriodDto busy : busy(itemId, from, to)) {
+            if (busy.start().isAfter(cursor)) {
+                result.add(new BookingPeriodDto(cursor, busy.start()));
+            }
+            if (busy.end().isAfter(cursor)) {
+                cursor = busy.end();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            result.add(new BookingPeriodDto(cursor, to));
+        }
+        return result;
+    }
+
+    private void replayAfter(long mark, Set<Long> itemIds) {
+        for (Added added : recent) {
+            if (added.seq() > mark && (itemIds == null || itemIds.contains(added.itemId()))) {
+                merge(added);
+            }
+        }
+    }
+
+    private void merge(Added added) {
+        byItem.merge(added.itemId(), Intervals.of(List.of(new long[]{added.start(), added.end()})), Intervals::merge);
+    }
+
+    private static Map<Long, List<long[]>> group(List<Object[]> rows) {
+        Map<Long, List<long[]>> periods = new HashMap<>();
+        for (Object[] row : rows) {
+            periods.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new long[]{micros((LocalDateTime) row[1]), micros((LocalDateTime) row[2])});
+        }
+        return periods;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime time(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /** Неизменяемый снимок интервалов одной вещи; изменения заменяют снимок целиком. */
+    private static final class Intervals {
+        private final long[] starts;
+        private final long[] ends;
+        /** maxEnds[i] — наибольший конец среди интервалов 0..i; неубывающий при любых пересечениях */
+        private final long[] maxEnds;
+
+        private Intervals(long[] starts, long[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            for (int i = 0; i < ends.length; i++) {
+                maxEnds[i] = i == 0 ? ends[0] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+
+        /** Снимок из пар {start, end} в произвольном порядке. */
+        static Intervals of(List<long[]> periods) {
+            long[][] sorted = periods.toArray(long[][]::new);
+            Arrays.sort(sorted, (a, b) -> Long.compare(a[0], b[0]));
+            long[] starts = new long[sorted.length];
+            long[] ends = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                starts[i] = sorted[i][0];
+                ends[i] = sorted[i][1];
+            }
+            return new Intervals(starts, ends);
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        /** Слияние двух отсортированных снимков; одинаковые интервалы не дублируются. */
+        Intervals merge(Intervals other) {
+            long[] newStarts = new long[size() + other.size()];
+            long[] newEnds = new long[newStarts.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < size() || j < other.size()) {
+                boolean takeThis = j == other.size() || (i < size() && starts[i] <= other.starts[j]);
+                long start = takeThis ? starts[i] : other.starts[j];
+                long end = takeThis ? ends[i++] : other.ends[j++];
+                if (n == 0 || newStarts[n - 1] != start || newEnds[n - 1] != end) {
+                    newStarts[n] = start;
+                    newEnds[n++] = end;
+                }
+            }
+            return new Intervals(Arrays.copyOf(newStarts, n), Arrays.copyOf(newEnds, n));
+        }
+
+        /** Индекс, до которого все интервалы закончились не позже point; дальше концы проверяются по одному. */
+        int firstEndingAfter(long point) {
+            int lo = 0;
+            int hi = maxEnds.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (maxEnds[mid] > point) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        boolean overlaps(long start, long end) {
+            for (int i = firstEndingAfter(start); i < starts.length && starts[i] < end; i++) {
+                if (ends[i] > start) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
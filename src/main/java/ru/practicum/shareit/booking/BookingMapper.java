@@ -14,7 +14,8 @@ public final class BookingMapper {
                 booking.getEnd(),
                 booking.getItem() != null ? booking.getItem().getId() : null,
                 booking.getBooker() != null ? booking.getBooker().getId() : null,
-                booking.getStatus()
+                booking.getStatus(),
+                booking.getItem() != null ? booking.getItem().getName() : null
         );
     }
 
@@ -26,6 +27,10 @@ public final class BookingMapper {
         );
     }
 
+    public static BookingResponseDto fromDto(BookingDto dto) {
+        return dto == null ? null : fromDto(dto, dto.itemName());
+    }
+
     public static BookingResponseDto fromDto(BookingDto dto, String itemName) {
         if (dto == null) return null;
         BookingResponseDto.ItemNestedDto item = null;
@@ -37,6 +42,7 @@ public final class BookingMapper {
             booker = new BookingResponseDto.BookerNestedDto(dto.bookerId());
         }
         String status = dto.status() != null ? dto.status().name() : null;
-        return new BookingResponseDto(dto.id(), dto.start(), dto.end(), status, item, booker);
+        return new BookingResponseDto(dto.id(), dto.start(), dto.end(), status,
+                dto.itemId(), dto.bookerId(), item, booker);
     }
 }
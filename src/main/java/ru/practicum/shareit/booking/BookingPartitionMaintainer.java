@@ -0,0 +1,214 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Помесячные секции bookings по end_date (PostgreSQL), включаются флагом shareit.bookings.partitioning.enabled.
+ * Если bookings ещё обычная таблица, сначала выполняет миграцию {@value #MIGRATION_SCRIPT}: флаг
+ * включают на время окна обслуживания, пока таблица копируется.
+ * Заранее создаёт секции на monthsAhead месяцев вперёд, а также за прошедшие месяцы, строки которых
+ * лежат в bookings_default (после миграции непустой таблицы); строки переносятся в новую секцию
+ * в той же транзакции.
+ * Архивирование по умолчанию выключено: при retentionMonths > 0 секции, закончившиеся раньше,
+ * отсоединяются и переносятся в схему bookings_archive — списки PAST, последнее бронирование вещи
+ * и право на отзыв их больше не видят.
+ * Узлы запускают обслуживание одновременно: DDL идёт под pg_advisory_xact_lock и перепроверяет
+ * состояние под блокировкой; ошибка только пишется в лог — старт приложения она не прерывает,
+ * следующий запуск повторит работу.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.bookings.partitioning.enabled", havingValue = "true")
+public class BookingPartitionMaintainer {
+
+    static final String ARCHIVE_SCHEMA = "bookings_archive";
+    static final String MIGRATION_SCRIPT = "db/bookings-partitioning.sql";
+    /** ключ pg_advisory_xact_lock, общий для всех узлов */
+    static final long LOCK_KEY = 0x73686172_65697462L;
+    /** DETACH без CONCURRENTLY (при DEFAULT-секции он недоступен): не ждать долгие запросы дольше этого */
+    static final String DETACH_LOCK_TIMEOUT = "5s";
+    private static final String PREFIX = "bookings_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("uuuuMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public BookingPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      Clock clock,
+                                      @Value("${shareit.bookings.partitioning.months-ahead:3}") int monthsAhead,
+                                      @Value("${shareit.bookings.partitioning.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.bookings.partitioning.cron:0 0 3 * * *}")
+    public void maintain() {
+        try {
+            maintain(YearMonth.now(clock));
+        } catch (RuntimeException e) {
+            log.error("Booking partition maintenance failed", e);
+        }
+    }
+
+    void maintain(YearMonth current) {
+        if (!isPartitioned()) {
+            migrate();
+        }
+        Set<YearMonth> months = new TreeSet<>(pastMonthsInDefault(current));
+        for (int i = 0; i <= monthsAhead; i++) {
+            months.add(current.plusMonths(i));
+        }
+        for (YearMonth month : months) {
+            try {
+                createPartition(month);
+            } catch (RuntimeException e) {
+                log.error("Booking partition {} was not created", partitionName(month), e);
+            }
+        }
+        if (retentionMonths > 0) {
+            archiveBefore(current.minusMonths(retentionMonths));
+        }
+    }
+
+    /** Перевод обычной bookings на секции; скрипт сам проверяет вид таблицы под блокировкой. */
+    private void migrate() {
+        log.warn("Table bookings is not partitioned, running {}: bookings is locked while rows are copied",
+                MIGRATION_SCRIPT);
+        String script = migrationScript();
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            jdbcTemplate.execute(script);
+        });
+        log.info("Table bookings converted to monthly partitions");
+    }
+
+    private static String migrationScript() {
+        try {
+            return StreamUtils.copyToString(new ClassPathResource(MIGRATION_SCRIPT).getInputStream(),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('bookings') AND relkind = 'p')",
+                Boolean.class));
+    }
+
+    /** Прошедшие месяцы, строки которых остались в bookings_default. */
+    private List<YearMonth> pastMonthsInDefault(YearMonth current) {
+        return jdbcTemplate.queryForList(
+                        "SELECT DISTINCT to_char(end_date, 'YYYYMM') FROM bookings_default WHERE end_date < ?",
+                        String.class, current.atDay(1).atStartOfDay())
+                .stream()
+                .map(suffix -> YearMonth.parse(suffix, SUFFIX))
+                .toList();
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        if (exists(name)) {
+            return;
+        }
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            // другой узел мог создать секцию, пока мы ждали блокировку
+            if (exists(name)) {
+                return;
+            }
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name
+                    + " (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM bookings_default"
+                    + " WHERE end_date >= ? AND end_date < ?", from.atStartOfDay(), to.atStartOfDay());
+            jdbcTemplate.update("DELETE FROM bookings_default WHERE end_date >= ? AND end_date < ?",
+                    from.atStartOfDay(), to.atStartOfDay());
+            jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT ex_" + name + "_approved_overlap"
+                    + " EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)"
+                    + " WHERE (status = 'APPROVED')");
+            jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION " + name
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            log.info("Booking partition {} created, {} rows moved from bookings_default", name, moved);
+        });
+    }
+
+    private void archiveBefore(YearMonth boundary) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " WHERE i.inhparent = to_regclass('bookings') AND c.relname ~ '^" + PREFIX + "[0-9]{6}$'",
+                String.class);
+        for (String name : partitions) {
+            YearMonth month = YearMonth.parse(name.substring(PREFIX.length()), SUFFIX);
+            if (!month.isBefore(boundary)) {
+                continue;
+            }
+            try {
+                // DETACH CONCURRENTLY запрещён, пока у bookings есть DEFAULT-секция; обычный DETACH берёт
+                // ACCESS EXCLUSIVE на bookings — короткая транзакция с lock_timeout, чтобы не копить очередь
+                transactionTemplate.executeWithoutResult(status -> {
+                    lock();
+                    if (!isAttached(name)) {
+                        return;
+                    }
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = '" + DETACH_LOCK_TIMEOUT + "'");
+                    jdbcTemplate.execute("ALTER TABLE bookings DETACH PARTITION " + name);
+                    jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + ARCHIVE_SCHEMA);
+                    log.info("Booking partition {} archived to {}", name, ARCHIVE_SCHEMA);
+                });
+            } catch (RuntimeException e) {
+                log.error("Booking partition {} was not archived", name, e);
+            }
+        }
+    }
+
+    private void lock() {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+    }
+
+    private boolean isAttached(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = to_regclass(?)"
+                        + " AND inhparent = to_regclass('bookings'))", Boolean.class, name));
+    }
+
+    private boolean exists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+
+    static String partitionName(YearMonth month) {
+        return PREFIX + SUFFIX.format(month);
+    }
+}
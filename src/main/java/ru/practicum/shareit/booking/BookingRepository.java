@@ -1,29 +1,223 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+/**
+ * Списки бронирований возвращают Slice: Spring Data выбирает size + 1 строк
+ * для признака hasNext и не выполняет отдельный count-запрос.
+ * Вещь подтягивается тем же запросом — её название нужно в ответе API.
+ * Запросы CURRENT/FUTURE содержат end > now (для FUTURE избыточное при start > now):
+ * на PostgreSQL таблица секционирована по end_date, и это условие отсекает старые секции.
+ */
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingBatchRepository {
 
-    Booking findFirstByItem_IdAndStartBeforeOrderByEndDesc(Long itemId, LocalDateTime now);
-    Booking findFirstByItem_IdAndStartBeforeAndStatusOrderByEndDesc(Long itemId, LocalDateTime now, Booking.BookingStatus status);
-    Booking findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(Long itemId, LocalDateTime now, Booking.BookingStatus status);
+    /** Бронирование вместе с вещью — для проверок владельца без ленивой догрузки. */
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Optional<Booking> findWithItemById(Long id);
+
+    /**
+     * Строки для BookingSummary одним запросом: [item_id, id, booker_id, start, end, status].
+     * По каждой вещи — последние (начались до now, максимальный end), ближайшие в статусе status
+     * и ближайшие будущие в любом статусе (их начало — момент, когда сводка устареет).
+     * При совпадении end/start по одной вещи может вернуться несколько строк каждого вида.
+     */
+    @Query("""
+        select b.item.id, b.id, b.booker.id, b.start, b.end, b.status from Booking b
+        where b.item.id in ?1 and (
+              (b.start < ?2 and b.end = (
+                  select max(b2.end) from Booking b2
+                  where b2.item.id = b.item.id and b2.start < ?2))
+           or (b.start > ?2 and b.end > ?2 and b.start = (
+                  select min(b3.start) from Booking b3
+                  where b3.item.id = b.item.id and b3.start > ?2 and b3.end > ?2))
+           or (b.start > ?2 and b.end > ?2 and b.status = ?3 and b.start = (
+                  select min(b4.start) from Booking b4
+                  where b4.item.id = b.item.id and b4.start > ?2 and b4.end > ?2 and b4.status = ?3))
+        )
+    """)
+    List<Object[]> findSummaryRows(Collection<Long> itemIds, LocalDateTime now, Booking.BookingStatus status);
+
+    /**
+     * Есть ли у вещи бронирование в статусе status, пересекающее [start, end), кроме excludeId.
+     * Диапазон по item_id + status + start_date обслуживается индексом idx_bookings_item_status.
+     * На секционированной bookings это основная защита от пересечений: EXCLUDE ex_bookings_approved_overlap
+     * задан в каждой секции отдельно и не видит бронирования, чьи end_date попали в разные месяцы.
+     */
+    @Query("""
+        select count(b) > 0 from Booking b
+        where b.item.id = ?1 and b.status = ?4 and b.id <> ?5
+          and b.start < ?3 and b.end > ?2
+    """)
+    boolean existsOverlapping(Long itemId, LocalDateTime start, LocalDateTime end,
+                              Booking.BookingStatus status, Long excludeId);
+
+    /** Бронирования вместе с вещами одним запросом — для массового подтверждения. */
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    List<Booking> findWithItemByIdIn(Collection<Long> ids);
+
+    /** Бронирования вещей itemIds в статусе status, пересекающие [from, to). */
+    @Query("""
+        select b from Booking b
+        where b.item.id in ?1 and b.status = ?2
+          and b.start < ?4 and b.end > ?3
+    """)
+    List<Booking> findOverlappingByItemIds(Collection<Long> itemIds, Booking.BookingStatus status,
+                                           LocalDateTime from, LocalDateTime to);
+
+    /** Незавершённые интервалы бронирований в статусе status: [item_id, start, end] — для BookingCalendar. */
+    @Query("select b.item.id, b.start, b.end from Booking b where b.status = ?1 and b.end > ?2")
+    List<Object[]> findPeriodsByStatusAndEndAfter(Booking.BookingStatus status, LocalDateTime now);
+
+    /** То же по вещам itemIds. */
+    @Query("select b.item.id, b.start, b.end from Booking b where b.item.id in ?1 and b.status = ?2 and b.end > ?3")
+    List<Object[]> findPeriodsByItemIdsAndStatusAndEndAfter(Collection<Long> itemIds, Booking.BookingStatus status,
+                                                            LocalDateTime now);
+
+    /** Вещи, в которых у букера есть незавершённые бронирования в статусе status. */
+    @Query("select distinct b.item.id from Booking b where b.booker.id = ?1 and b.status = ?2 and b.end > ?3")
+    List<Long> findItemIdsByBookerIdAndStatusAndEndAfter(Long bookerId, Booking.BookingStatus status,
+                                                         LocalDateTime now);
+
+    /**
+     * Compare-and-set статуса: меняет только бронирование в статусе expected.
+     * Возвращает число изменённых строк (0 — статус уже сменил другой запрос).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = ?3 where b.id = ?1 and b.status = ?2")
+    int updateStatus(Long id, Booking.BookingStatus expected, Booking.BookingStatus status);
 
     boolean existsByBooker_IdAndItem_IdAndStatusAndEndBefore(Long bookerId, Long itemId,
                                                              Booking.BookingStatus status, LocalDateTime endBefore);
 
-    Page<Booking> findByBooker_Id(Long bookerId, Pageable p);
-    Page<Booking> findByBooker_IdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime now1, LocalDateTime now2, Pageable p);
-    Page<Booking> findByBooker_IdAndEndBefore(Long bookerId, LocalDateTime now, Pageable p);
-    Page<Booking> findByBooker_IdAndStartAfter(Long bookerId, LocalDateTime now, Pageable p);
-    Page<Booking> findByBooker_IdAndStatus(Long bookerId, Booking.BookingStatus status, Pageable p);
-
-    Page<Booking> findByItem_Owner_Id(Long ownerId, Pageable p);
-    Page<Booking> findByItem_Owner_IdAndStartBeforeAndEndAfter(Long ownerId, LocalDateTime now1, LocalDateTime now2, Pageable p);
-    Page<Booking> findByItem_Owner_IdAndEndBefore(Long ownerId, LocalDateTime now, Pageable p);
-    Page<Booking> findByItem_Owner_IdAndStartAfter(Long ownerId, LocalDateTime now, Pageable p);
-    Page<Booking> findByItem_Owner_IdAndStatus(Long ownerId, Booking.BookingStatus status, Pageable p);
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Slice<Booking> findByBooker_Id(Long bookerId, Pageable p);
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Slice<Booking> findByBooker_IdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime now1, LocalDateTime now2, Pageable p);
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Slice<Booking> findByBooker_IdAndEndBefore(Long bookerId, LocalDateTime now, Pageable p);
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Slice<Booking> findByBooker_IdAndStartAfterAndEndAfter(Long bookerId, LocalDateTime now1, LocalDateTime now2, Pageable p);
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Slice<Booking> findByBooker_IdAndStatus(Long bookerId, Booking.BookingStatus status, Pageable p);
+
+    // Keyset-пагинация: записи строго после курсора (start, id) в порядке start desc, id desc.
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    @Query("""
+        select b from Booking b
+        where b.booker.id = ?1
+          and (b.start < ?2 or (b.start = ?2 and b.id < ?3))
+        order by b.start desc, b.id desc
+    """)
+    Slice<Booking> findByBookerAfterCursor(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable p);
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    @Query("""
+        select b from Booking b
+        where b.booker.id = ?1 and b.start < ?2 and b.end > ?2
+          and (b.start < ?3 or (b.start = ?3 and b.id < ?4))
+        order by b.start desc, b.id desc
+    """)
+    Slice<Booking> findCurrentByBookerAfterCursor(Long bookerId, LocalDateTime now,
+                                                  LocalDateTime cursorStart, Long cursorId, Pageable p);
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    @Query("""
+        select b from Booking b
+        where b.booker.id = ?1 and b.end < ?2
+          and (b.start < ?3 or (b.start = ?3 and b.id < ?4))
+        order by b.start desc, b.id desc
+    """)
+    Slice<Booking> findPastByBookerAfterCursor(Long bookerId, LocalDateTime now,
+                                               LocalDateTime cursorStart, Long cursorId, Pageable p);
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    @Query("""
+        select b from Booking b
+        where b.booker.id = ?1 and b.start > ?2 and b.end > ?2
+          and (b.start < ?3 or (b.start = ?3 and b.id < ?4))
+        order by b.start desc, b.id desc
+    """)
+    Slice<Booking> findFutureByBookerAfterCursor(Long bookerId, LocalDateTime now,
+                                                 LocalDateTime cursorStart, Long cursorId, Pageable p);
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    @Query("""
+        select b from Booking b
+        where b.booker.id = ?1 and b.status = ?2
+          and (b.start < ?3 or (b.start = ?3 and b.id < ?4))
+        order by b.start desc, b.id desc
+    """)
+    Slice<Booking> findByBookerAndStatusAfterCursor(Long bookerId, Booking.BookingStatus status,
+                                                    LocalDateTime cursorStart, Long cursorId, Pageable p);
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Slice<Booking> findByOwnerId(Long ownerId, Pageable p);
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Slice<Booking> findByOwnerIdAndStartBeforeAndEndAfter(Long ownerId, LocalDateTime now1, LocalDateTime now2, Pageable p);
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Slice<Booking> findByOwnerIdAndEndBefore(Long ownerId, LocalDateTime now, Pageable p);
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Slice<Booking> findByOwnerIdAndStartAfterAndEndAfter(Long ownerId, LocalDateTime now1, LocalDateTime now2, Pageable p);
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    Slice<Booking> findByOwnerIdAndStatus(Long ownerId, Booking.BookingStatus status, Pageable p);
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    @Query("""
+        select b from Booking b
+        where b.ownerId = ?1
+          and (b.start < ?2 or (b.start = ?2 and b.id < ?3))
+        order by b.start desc, b.id desc
+    """)
+    Slice<Booking> findByOwnerAfterCursor(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable p);
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    @Query("""
+        select b from Booking b
+        where b.ownerId = ?1 and b.start < ?2 and b.end > ?2
+          and (b.start < ?3 or (b.start = ?3 and b.id < ?4))
+        order by b.start desc, b.id desc
+    """)
+    Slice<Booking> findCurrentByOwnerAfterCursor(Long ownerId, LocalDateTime now,
+                                                 LocalDateTime cursorStart, Long cursorId, Pageable p);
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    @Query("""
+        select b from Booking b
+        where b.ownerId = ?1 and b.end < ?2
+          and (b.start < ?3 or (b.start = ?3 and b.id < ?4))
+        order by b.start desc, b.id desc
+    """)
+    Slice<Booking> findPastByOwnerAfterCursor(Long ownerId, LocalDateTime now,
+                                              LocalDateTime cursorStart, Long cursorId, Pageable p);
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    @Query("""
+        select b from Booking b
+        where b.ownerId = ?1 and b.start > ?2 and b.end > ?2
+          and (b.start < ?3 or (b.start = ?3 and b.id < ?4))
+        order by b.start desc, b.id desc
+    """)
+    Slice<Booking> findFutureByOwnerAfterCursor(Long ownerId, LocalDateTime now,
+                                                LocalDateTime cursorStart, Long cursorId, Pageable p);
+
+    @EntityGraph(Booking.GRAPH_WITH_ITEM)
+    @Query("""
+        select b from Booking b
+        where b.ownerId = ?1 and b.status = ?2
+          and (b.start < ?3 or (b.start = ?3 and b.id < ?4))
+        order by b.start desc, b.id desc
+    """)
+    Slice<Booking> findByOwnerAndStatusAfterCursor(Long ownerId, Booking.BookingStatus status,
+                                                   LocalDateTime cursorStart, Long cursorId, Pageable p);
 }
@@ -7,7 +7,10 @@ import java.util.List;
 public interface BookingService {
     BookingDto create(Long userId, BookingCreateDto dto);
     BookingDto approve(Long ownerId, Long bookingId, boolean approved);
+    List<BookingApprovalResultDto> approveAll(Long ownerId, List<Long> bookingIds, boolean approved);
     BookingDto get(Long userId, Long bookingId);
-    List<BookingDto> listForUser(Long userId, BookingState state, int from, int size);
-    List<BookingDto> listForOwner(Long ownerId, BookingState state, int from, int size);
+    BookingListDto listForUser(Long userId, BookingState state, int from, int size);
+    BookingListDto listForOwner(Long ownerId, BookingState state, int from, int size);
+    BookingListDto scrollForUser(Long userId, BookingState state, String cursor, int size);
+    BookingListDto scrollForOwner(Long ownerId, BookingState state, String cursor, int size);
 }
@@ -1,13 +1,22 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
@@ -19,18 +28,37 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
-    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
+    // id — тай-брейкер, чтобы порядок совпадал с keyset-курсором (start, id)
+    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+    /** попыток подтверждения при конфликте версий вещи */
+    static final int APPROVE_ATTEMPTS = 3;
+    /** верхняя граница пакета массового подтверждения */
+    static final int MAX_BULK_SIZE = 100;
 
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingCalendar bookingCalendar;
+    private final BookingSummary bookingSummary;
 
     @Override
     public BookingDto create(Long userId, BookingCreateDto dto) {
@@ -48,9 +76,9 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("start/end must be in the future");
         }
 
-        User booker = userRepository.findById(userId)
+        User booker = userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException(String.format("User not found: %d", userId)));
-        Item item = itemRepository.findById(dto.itemId())
+        Item item = itemRepository.findCachedById(dto.itemId())
                 .orElseThrow(() -> new NotFoundException(String.format("Item not found: %d", dto.itemId())));
 
         if (item.getOwner() != null && Objects.equals(item.getOwner().getId(), userId)) {
@@ -59,38 +87,250 @@ public class BookingServiceImpl implements BookingService {
         if (!Boolean.TRUE.equals(item.getAvailable())) {
             throw new ValidationException("Item is not available for booking");
         }
+        // быстрый отказ по календарю без запроса в БД; окончательная проверка — при подтверждении
+        if (bookingCalendar.isBusy(item.getId(), dto.start(), dto.end())) {
+            throw new ConflictException("Item is already booked for this period");
+        }
 
+        // точность столбцов TIMESTAMP — микросекунды: иначе start в курсоре разойдётся с сохранённым
         Booking booking = Booking.builder()
-                .start(dto.start())
-                .end(dto.end())
+                .start(dto.start().truncatedTo(ChronoUnit.MICROS))
+                .end(dto.end().truncatedTo(ChronoUnit.MICROS))
                 .item(item)
                 .booker(booker)
                 .status(BookingStatus.WAITING)
+                .ownerId(item.getOwner().getId())
                 .build();
 
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        BookingDto created = BookingMapper.toDto(bookingRepository.save(booking));
+        bookingSummary.onCreated(created.itemId(), created.start());
+        return created;
     }
 
     @Override
     public BookingDto approve(Long ownerId, Long bookingId, boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
+        BookingDto result = withApproveRetries(() -> approveOnce(ownerId, bookingId, approved));
+        if (result.status() == BookingStatus.APPROVED) {
+            onApproved(result);
+        }
+        return result;
+    }
+
+    /**
+     * Все бронирования загружаются одним запросом, права и статусы проверяются в памяти,
+     * изменения статусов уходят одним JDBC-батчем. Ошибка по одному бронированию не отменяет остальные.
+     */
+    @Override
+    public List<BookingApprovalResultDto> approveAll(Long ownerId, List<Long> bookingIds, boolean approved) {
+        if (bookingIds == null || bookingIds.isEmpty() || bookingIds.stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("bookingIds must not be empty");
+        }
+        if (bookingIds.size() > MAX_BULK_SIZE) {
+            throw new ValidationException(String.format("At most %d bookings per request", MAX_BULK_SIZE));
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        List<BookingDto> changed = new ArrayList<>();
+        List<BookingApprovalResultDto> results;
+        try {
+            results = withRetries(() -> {
+                changed.clear();
+                return approveAllOnce(ownerId, ids, approved, changed);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // пакет откатился целиком: пересекающееся бронирование подтвердили параллельно
+            // (ex_bookings_approved_overlap) — каждое проверяется заново и отказ получают только пересекающиеся
+            changed.clear();
+            results = approveEach(ownerId, ids, approved, changed);
+        }
+        if (approved) {
+            changed.forEach(this::onApproved);
+        }
+        return results;
+    }
+
+    /** После коммита: календарь занятости и сводка последнего/ближайшего бронирования. */
+    private void onApproved(BookingDto booking) {
+        bookingCalendar.add(booking.itemId(), booking.start(), booking.end());
+        bookingSummary.onApproved(booking.itemId(), booking.id(), booking.bookerId(), booking.start());
+    }
+
+    /** Бронирования по одному, каждое в своей транзакции; ошибка одного попадает в его результат. */
+    private List<BookingApprovalResultDto> approveEach(Long ownerId, Set<Long> ids, boolean approved,
+                                                       List<BookingDto> changed) {
+        List<BookingApprovalResultDto> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            try {
+                BookingDto dto = withApproveRetries(() -> approveOnce(ownerId, id, approved));
+                changed.add(dto);
+                results.add(BookingApprovalResultDto.ok(id, dto.status()));
+            } catch (NotFoundException | ForbiddenException | ConflictException e) {
+                results.add(BookingApprovalResultDto.failed(id, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private <T> T withApproveRetries(Supplier<T> action) {
+        try {
+            return withRetries(action);
+        } catch (DataIntegrityViolationException e) {
+            // ограничение ex_bookings_approved_overlap (PostgreSQL)
+            throw new ConflictException("Item is already booked for this period");
+        }
+    }
+
+    private <T> T withRetries(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(tx -> action.get());
+            } catch (ConcurrencyFailureException e) {
+                // параллельно подтверждена другая бронь этой вещи — повторяем с проверкой пересечений
+                if (attempt >= APPROVE_ATTEMPTS) {
+                    throw new ConflictException("Item is being booked concurrently, try again");
+                }
+            }
+        }
+    }
+
+    private List<BookingApprovalResultDto> approveAllOnce(Long ownerId, Set<Long> ids, boolean approved,
+                                                          List<BookingDto> changed) {
+        Map<Long, Booking> bookings = bookingRepository.findWithItemByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Long, String> errors = new HashMap<>();
+        List<Booking> candidates = new ArrayList<>();
+        for (Long id : ids) {
+            Booking booking = bookings.get(id);
+            if (booking == null) {
+                errors.put(id, String.format("Booking not found: %d", id));
+            } else if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+                errors.put(id, "Only item owner can approve/reject booking");
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                errors.put(id, "Only WAITING booking can be changed");
+            } else {
+                candidates.add(booking);
+            }
+        }
+        if (approved) {
+            candidates = withoutOverlaps(candidates, errors);
+        }
+
+        List<Long> updateIds = candidates.stream().map(Booking::getId).sorted().toList();
+        BookingStatus target = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int[] updated = bookingRepository.updateStatuses(updateIds, BookingStatus.WAITING, target);
+        Set<Long> applied = new HashSet<>();
+        for (int i = 0; i < updateIds.size(); i++) {
+            if (updated[i] == 0) {
+                errors.put(updateIds.get(i), "Only WAITING booking can be changed");
+            } else {
+                applied.add(updateIds.get(i));
+            }
+        }
+
+        if (approved) {
+            // CAS версий вещей — как в approveOnce, конфликт откатывает весь пакет и повторяет его
+            Map<Long, Long> versions = new HashMap<>();
+            candidates.stream()
+                    .filter(b -> applied.contains(b.getId()))
+                    .forEach(b -> versions.put(b.getItem().getId(), b.getItem().getVersion()));
+            versions.forEach((itemId, version) -> {
+                if (itemRepository.incrementVersion(itemId, version) == 0) {
+                    throw new ObjectOptimisticLockingFailureException(Item.class, itemId);
+                }
+            });
+        }
+
+        List<BookingApprovalResultDto> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (applied.contains(id)) {
+                BookingDto dto = BookingMapper.toDto(bookings.get(id));
+                changed.add(dto);
+                results.add(BookingApprovalResultDto.ok(id, target));
+            } else {
+                results.add(BookingApprovalResultDto.failed(id, errors.get(id)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Отсеивает кандидатов, пересекающихся с уже подтверждёнными бронированиями или с более ранними
+     * кандидатами той же вещи. Подтверждённые читаются одним запросом по всем вещам пакета.
+     */
+    private List<Booking> withoutOverlaps(List<Booking> candidates, Map<Long, String> errors) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Set<Long> itemIds = candidates.stream().map(b -> b.getItem().getId()).collect(Collectors.toSet());
+        LocalDateTime from = candidates.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = candidates.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+
+        Map<Long, List<Booking>> taken = new HashMap<>();
+        for (Booking b : bookingRepository.findOverlappingByItemIds(itemIds, BookingStatus.APPROVED, from, to)) {
+            taken.computeIfAbsent(b.getItem().getId(), id -> new ArrayList<>()).add(b);
+        }
+
+        List<Booking> accepted = new ArrayList<>();
+        candidates.stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId))
+                .forEach(candidate -> {
+                    List<Booking> itemTaken = taken.computeIfAbsent(candidate.getItem().getId(), id -> new ArrayList<>());
+                    boolean overlaps = itemTaken.stream().anyMatch(b ->
+                            b.getStart().isBefore(candidate.getEnd()) && b.getEnd().isAfter(candidate.getStart()));
+                    if (overlaps) {
+                        errors.put(candidate.getId(), "Item is already booked for this period");
+                    } else {
+                        itemTaken.add(candidate);
+                        accepted.add(candidate);
+                    }
+                });
+        return accepted;
+    }
+
+    /**
+     * Без блокировок на чтение: статус меняется условным UPDATE (WAITING -> итоговый),
+     * проигравший параллельный запрос получает 0 строк и ConflictException.
+     * Подтверждение дополнительно увеличивает версию вещи по CAS: из двух пересекающихся подтверждений
+     * одной вещи второе не совпадёт по версии, откатится и при повторе увидит первое.
+     * Именно эта проверка, а не ex_bookings_approved_overlap, гарантирует отсутствие пересечений
+     * на секционированной bookings: EXCLUDE действует внутри одной секции (месяца end_date),
+     * и два бронирования с концами в разных месяцах ограничение не сравнивает.
+     */
+    private BookingDto approveOnce(Long ownerId, Long bookingId, boolean approved) {
+        Booking booking = bookingRepository.findWithItemById(bookingId)
                 .orElseThrow(() -> new NotFoundException(String.format("Booking not found: %d", bookingId)));
 
-        Long itemOwnerId = booking.getItem().getOwner().getId();
-        if (!itemOwnerId.equals(ownerId)) {
+        Item item = booking.getItem();
+        if (!item.getOwner().getId().equals(ownerId)) {
             throw new ForbiddenException("Only item owner can approve/reject booking");
         }
         if (booking.getStatus() != BookingStatus.WAITING) {
             throw new ConflictException("Only WAITING booking can be changed");
         }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        Long itemVersion = item.getVersion();
+        if (approved && bookingRepository.existsOverlapping(item.getId(), booking.getStart(), booking.getEnd(),
+                BookingStatus.APPROVED, booking.getId())) {
+            throw new ConflictException("Item is already booked for this period");
+        }
+
+        BookingStatus target = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, BookingStatus.WAITING, target) == 0) {
+            throw new ConflictException("Only WAITING booking can be changed");
+        }
+        if (approved && itemRepository.incrementVersion(item.getId(), itemVersion) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Item.class, item.getId());
+        }
+
+        // сущность уже отсоединена (clearAutomatically), меняется только для ответа
+        booking.setStatus(target);
+        return BookingMapper.toDto(booking);
     }
 
     @Override
     public BookingDto get(Long userId, Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemById(bookingId)
                 .orElseThrow(() -> new NotFoundException(String.format("Booking not found: %d", bookingId)));
 
         Long ownerId = booking.getItem().getOwner().getId();
@@ -102,59 +342,119 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> listForUser(Long userId, BookingState state, int from, int size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("User not found: %d", userId)));
+    public BookingListDto listForUser(Long userId, BookingState state, int from, int size) {
         validatePage(from, size);
 
         LocalDateTime now = LocalDateTime.now();
-        PageRequest pageRequest = PageRequest.of(from / size, size, SORT_BY_START_DESC);
+        Pageable pageRequest = new OffsetPageRequest(from, size, SORT_BY_START_DESC);
 
-        Page<Booking> page;
+        Slice<Booking> page;
         switch (state) {
             case CURRENT -> page = bookingRepository.findByBooker_IdAndStartBeforeAndEndAfter(userId, now, now, pageRequest);
             case PAST -> page = bookingRepository.findByBooker_IdAndEndBefore(userId, now, pageRequest);
-            case FUTURE -> page = bookingRepository.findByBooker_IdAndStartAfter(userId, now, pageRequest);
+            case FUTURE -> page = bookingRepository.findByBooker_IdAndStartAfterAndEndAfter(userId, now, now, pageRequest);
             case WAITING -> page = bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.WAITING, pageRequest);
             case REJECTED -> page = bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.REJECTED, pageRequest);
             case ALL -> page = bookingRepository.findByBooker_Id(userId, pageRequest);
             default -> throw new ValidationException(String.format("Unknown state: %s", state));
         }
 
-        return page.getContent().stream()
-                .map(BookingMapper::toDto)
-                .toList();
+        return toListDto(userId, page);
     }
 
     @Override
-    public List<BookingDto> listForOwner(Long ownerId, BookingState state, int from, int size) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException(String.format("User not found: %d", ownerId)));
+    public BookingListDto listForOwner(Long ownerId, BookingState state, int from, int size) {
         validatePage(from, size);
 
         LocalDateTime now = LocalDateTime.now();
-        PageRequest pageRequest = PageRequest.of(from / size, size, SORT_BY_START_DESC);
+        Pageable pageRequest = new OffsetPageRequest(from, size, SORT_BY_START_DESC);
+
+        Slice<Booking> page;
+        switch (state) {
+            case CURRENT -> page = bookingRepository.findByOwnerIdAndStartBeforeAndEndAfter(ownerId, now, now, pageRequest);
+            case PAST -> page = bookingRepository.findByOwnerIdAndEndBefore(ownerId, now, pageRequest);
+            case FUTURE -> page = bookingRepository.findByOwnerIdAndStartAfterAndEndAfter(ownerId, now, now, pageRequest);
+            case WAITING -> page = bookingRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, pageRequest);
+            case REJECTED -> page = bookingRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, pageRequest);
+            case ALL -> page = bookingRepository.findByOwnerId(ownerId, pageRequest);
+            default -> throw new ValidationException(String.format("Unknown state: %s", state));
+        }
+
+        return toListDto(ownerId, page);
+    }
+
+    @Override
+    public BookingListDto scrollForUser(Long userId, BookingState state, String cursor, int size) {
+        if (!StringUtils.hasText(cursor)) {
+            return listForUser(userId, state, 0, size);
+        }
+        validateSize(size);
+
+        BookingCursor after = BookingCursor.decode(cursor);
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest limit = PageRequest.of(0, size);
 
-        Page<Booking> page;
+        Slice<Booking> bookings;
         switch (state) {
-            case CURRENT -> page = bookingRepository.findByItem_Owner_IdAndStartBeforeAndEndAfter(ownerId, now, now, pageRequest);
-            case PAST -> page = bookingRepository.findByItem_Owner_IdAndEndBefore(ownerId, now, pageRequest);
-            case FUTURE -> page = bookingRepository.findByItem_Owner_IdAndStartAfter(ownerId, now, pageRequest);
-            case WAITING -> page = bookingRepository.findByItem_Owner_IdAndStatus(ownerId, BookingStatus.WAITING, pageRequest);
-            case REJECTED -> page = bookingRepository.findByItem_Owner_IdAndStatus(ownerId, BookingStatus.REJECTED, pageRequest);
-            case ALL -> page = bookingRepository.findByItem_Owner_Id(ownerId, pageRequest);
+            case CURRENT -> bookings = bookingRepository.findCurrentByBookerAfterCursor(userId, now, after.start(), after.id(), limit);
+            case PAST -> bookings = bookingRepository.findPastByBookerAfterCursor(userId, now, after.start(), after.id(), limit);
+            case FUTURE -> bookings = bookingRepository.findFutureByBookerAfterCursor(userId, now, after.start(), after.id(), limit);
+            case WAITING -> bookings = bookingRepository.findByBookerAndStatusAfterCursor(userId, BookingStatus.WAITING, after.start(), after.id(), limit);
+            case REJECTED -> bookings = bookingRepository.findByBookerAndStatusAfterCursor(userId, BookingStatus.REJECTED, after.start(), after.id(), limit);
+            case ALL -> bookings = bookingRepository.findByBookerAfterCursor(userId, after.start(), after.id(), limit);
             default -> throw new ValidationException(String.format("Unknown state: %s", state));
         }
 
-        return page.getContent().stream()
+        return toListDto(userId, bookings);
+    }
+
+    @Override
+    public BookingListDto scrollForOwner(Long ownerId, BookingState state, String cursor, int size) {
+        if (!StringUtils.hasText(cursor)) {
+            return listForOwner(ownerId, state, 0, size);
+        }
+        validateSize(size);
+
+        BookingCursor after = BookingCursor.decode(cursor);
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest limit = PageRequest.of(0, size);
+
+        Slice<Booking> bookings;
+        switch (state) {
+            case CURRENT -> bookings = bookingRepository.findCurrentByOwnerAfterCursor(ownerId, now, after.start(), after.id(), limit);
+            case PAST -> bookings = bookingRepository.findPastByOwnerAfterCursor(ownerId, now, after.start(), after.id(), limit);
+            case FUTURE -> bookings = bookingRepository.findFutureByOwnerAfterCursor(ownerId, now, after.start(), after.id(), limit);
+            case WAITING -> bookings = bookingRepository.findByOwnerAndStatusAfterCursor(ownerId, BookingStatus.WAITING, after.start(), after.id(), limit);
+            case REJECTED -> bookings = bookingRepository.findByOwnerAndStatusAfterCursor(ownerId, BookingStatus.REJECTED, after.start(), after.id(), limit);
+            case ALL -> bookings = bookingRepository.findByOwnerAfterCursor(ownerId, after.start(), after.id(), limit);
+            default -> throw new ValidationException(String.format("Unknown state: %s", state));
+        }
+
+        return toListDto(ownerId, bookings);
+    }
+
+    /**
+     * Непустая страница сама подтверждает существование пользователя (FK бронирования),
+     * поэтому проверка existsById делается только для пустого результата.
+     */
+    private BookingListDto toListDto(Long userId, Slice<Booking> slice) {
+        if (!slice.hasContent() && !userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("User not found: %d", userId));
+        }
+        List<BookingDto> bookings = slice.getContent().stream()
                 .map(BookingMapper::toDto)
                 .toList();
+        return BookingListDto.of(bookings, slice.hasNext());
     }
 
     private void validatePage(int from, int size) {
         if (from < 0) {
             throw new ValidationException("'from' must be >= 0");
         }
+        validateSize(size);
+    }
+
+    private void validateSize(int size) {
         if (size <= 0) {
             throw new ValidationException("'size' must be > 0");
         }
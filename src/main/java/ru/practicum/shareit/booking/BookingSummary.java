@@ -0,0 +1,227 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Последнее (любое уже начавшееся) и ближайшее подтверждённое бронирование по каждой вещи —
+ * для списка вещей владельца.
+ * Запись действительна до validUntil: начала ближайшего будущего бронирования в любом статусе
+ * (тогда меняется «последнее» и, возможно, «ближайшее») и не дольше MAX_AGE — изменения
+ * с других узлов видны с этой задержкой. Создание и подтверждение на этом узле правят запись сразу,
+ * устаревшие записи перечитывает sweep пачками — так список вещей владельца не обращается к bookings;
+ * при чтении устаревшая запись перечитывается на месте.
+ * Перечитываются только вещи, которые читали за последние IDLE_AFTER; устаревшие записи остальных
+ * sweep удаляет — карта не растёт, и БД не опрашивается ради вещей, которые никто не смотрит.
+ * Перечитывание не затирает запись, изменённую событием во время запроса в БД: такая запись остаётся
+ * устаревшей и будет перечитана следующей.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingSummary {
+
+    /** предел устаревания относительно изменений на других узлах */
+    static final Duration MAX_AGE = Duration.ofMinutes(10);
+    /** вещи, которые не читали дольше, sweep не перечитывает, а удаляет */
+    static final Duration IDLE_AFTER = Duration.ofHours(1);
+    private static final int REFRESH_BATCH = 500;
+
+    private final BookingRepository bookingRepository;
+    private final Clock clock;
+
+    private final ConcurrentMap<Long, Entry> byItem = new ConcurrentHashMap<>();
+    /** момент последнего чтения вещи через get */
+    private final ConcurrentMap<Long, LocalDateTime> lastRead = new ConcurrentHashMap<>();
+
+    /** Последнее и ближайшее бронирование вещи; любой из них может быть null. */
+    public record LastNext(BookingShortDto last, BookingShortDto next) {
+        static final LastNext NONE = new LastNext(null, null);
+    }
+
+    /** Сводка по вещам; недостающие и устаревшие записи перечитываются одним запросом. */
+    public Map<Long, LastNext> get(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<Long, LastNext> result = new HashMap<>();
+        List<Long> stale = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            lastRead.put(itemId, now);
+            Entry entry = byItem.get(itemId);
+            if (entry == null || !entry.validUntil.isAfter(now)) {
+                stale.add(itemId);
+            } else {
+                result.put(itemId, entry.lastNext);
+            }
+        }
+        if (!stale.isEmpty()) {
+            refresh(stale, now).forEach((itemId, entry) -> result.put(itemId, entry.lastNext));
+        }
+        return result;
+    }
+
+    /** Новое бронирование станет кандидатом в «последние», когда начнётся. */
+    public void onCreated(Long itemId, LocalDateTime start) {
+        byItem.compute(itemId, (id, entry) -> entry == null
+                ? Entry.STALE
+                : entry.with(entry.lastNext, entry.nextStart, min(entry.validUntil, start)));
+    }
+
+    /** Подтверждённое будущее бронирование может стать «ближайшим». */
+    public void onApproved(Long itemId, Long bookingId, Long bookerId, LocalDateTime start) {
+        byItem.compute(itemId, (id, entry) -> {
+            if (entry == null) {
+                return Entry.STALE;
+            }
+            boolean earlier = entry.lastNext.next() == null || start.isBefore(entry.nextStart)
+                    || (start.isEqual(entry.nextStart) && bookingId < entry.lastNext.next().id());
+            if (!start.isAfter(LocalDateTime.now(clock)) || !earlier) {
+                return entry;
+            }
+            return entry.with(new LastNext(entry.lastNext.last(), new BookingShortDto(bookingId, bookerId)),
+                    start, min(entry.validUntil, start));
+        });
+    }
+
+    /** Вещи удалены (вместе с владельцем или бронированиями): их записи больше не нужны. */
+    public void forget(Collection<Long> itemIds) {
+        itemIds.forEach(itemId -> {
+            byItem.remove(itemId);
+            lastRead.remove(itemId);
+        });
+    }
+
+    /**
+     * Записи, у которых наступил validUntil (бронирования перешли из будущих в текущие): недавно читанные
+     * вещи перечитываются пачками по REFRESH_BATCH, остальные удаляются — следующий get перечитает их сам.
+     * Удаление условное: запись, заменённая событием после проверки, остаётся. Удалённый маркер STALE
+     * позволяет перечитыванию, начатому до события, записать значение без него — такое значение живёт
+     * не дольше MAX_AGE, как и изменения с других узлов.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime idleBefore = now.minus(IDLE_AFTER);
+        List<Long> stale = new ArrayList<>();
+        int dropped = 0;
+        for (Map.Entry<Long, Entry> e : byItem.entrySet()) {
+            if (e.getValue().validUntil.isAfter(now)) {
+                continue;
+            }
+            LocalDateTime read = lastRead.get(e.getKey());
+            if (read != null && !read.isBefore(idleBefore)) {
+                stale.add(e.getKey());
+            } else if (byItem.remove(e.getKey(), e.getValue())) {
+                if (read != null) {
+                    lastRead.remove(e.getKey(), read);
+                }
+                dropped++;
+            }
+        }
+        for (int i = 0; i < stale.size(); i += REFRESH_BATCH) {
+            refresh(stale.subList(i, Math.min(i + REFRESH_BATCH, stale.size())), now);
+        }
+        if (!stale.isEmpty() || dropped > 0) {
+            log.debug("Booking summary swept: {} items refreshed, {} idle entries dropped", stale.size(), dropped);
+        }
+    }
+
+    private Map<Long, Entry> refresh(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, Entry> before = new HashMap<>();
+        itemIds.forEach(id -> before.put(id, byItem.get(id)));
+
+        Map<Long, Builder> builders = new HashMap<>();
+        for (Object[] row : bookingRepository.findSummaryRows(itemIds, now, Booking.BookingStatus.APPROVED)) {
+            builders.computeIfAbsent((Long) row[0], id -> new Builder()).accept(row, now);
+        }
+
+        Map<Long, Entry> fresh = new HashMap<>();
+        LocalDateTime maxValid = now.plus(MAX_AGE);
+        for (Long itemId : itemIds) {
+            Builder builder = builders.get(itemId);
+            Entry entry = builder == null ? new Entry(LastNext.NONE, null, maxValid) : builder.build(maxValid);
+            fresh.put(itemId, entry);
+            Entry old = before.get(itemId);
+            if (old == null) {
+                byItem.putIfAbsent(itemId, entry);
+            } else {
+                byItem.replace(itemId, old, entry);
+            }
+        }
+        return fresh;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /** Неизменяемая запись; сравнение по ссылке — для условной замены при перечитывании. */
+    private static final class Entry {
+        /** событие по вещи без записи: перечитывание, начатое до события, не должно её установить */
+        static final Entry STALE = new Entry(LastNext.NONE, null, LocalDateTime.MIN);
+
+        private final LastNext lastNext;
+        private final LocalDateTime nextStart;
+        private final LocalDateTime validUntil;
+
+        private Entry(LastNext lastNext, LocalDateTime nextStart, LocalDateTime validUntil) {
+            this.lastNext = lastNext;
+            this.nextStart = nextStart;
+            this.validUntil = validUntil;
+        }
+
+        Entry with(LastNext lastNext, LocalDateTime nextStart, LocalDateTime validUntil) {
+            return new Entry(lastNext, nextStart, validUntil);
+        }
+    }
+
+    /** Выбор из строк findSummaryRows по одной вещи. */
+    private static final class Builder {
+        private Object[] last;
+        private Object[] next;
+        private LocalDateTime firstFutureStart;
+
+        void accept(Object[] row, LocalDateTime now) {
+            LocalDateTime start = (LocalDateTime) row[3];
+            if (start.isBefore(now)) {
+                // максимальный end, при равенстве — больший id
+                if (last == null || ((LocalDateTime) row[4]).isAfter((LocalDateTime) last[4])
+                        || (row[4].equals(last[4]) && (Long) row[1] > (Long) last[1])) {
+                    last = row;
+                }
+                return;
+            }
+            if (firstFutureStart == null || start.isBefore(firstFutureStart)) {
+                firstFutureStart = start;
+            }
+            // минимальный start, при равенстве — меньший id
+            if (row[5] == Booking.BookingStatus.APPROVED && (next == null || start.isBefore((LocalDateTime) next[3])
+                    || (start.equals(next[3]) && (Long) row[1] < (Long) next[1]))) {
+                next = row;
+            }
+        }
+
+        Entry build(LocalDateTime maxValid) {
+            LastNext lastNext = new LastNext(shortDto(last), shortDto(next));
+            LocalDateTime validUntil = firstFutureStart == null ? maxValid : min(firstFutureStart, maxValid);
+            return new Entry(lastNext, next == null ? null : (LocalDateTime) next[3], validUntil);
+        }
+
+        private static BookingShortDto shortDto(Object[] row) {
+            return row == null ? null : new BookingShortDto((Long) row[1], (Long) row[2]);
+        }
+    }
+}
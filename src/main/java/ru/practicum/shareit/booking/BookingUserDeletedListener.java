@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Удаление пользователя каскадом уносит его вещи и бронирования: календарь занятости и сводка
+ * последнего/ближайшего бронирования правятся после коммита, откат удаления их не задевает.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingUserDeletedListener {
+
+    private final BookingRepository bookingRepository;
+    private final BookingCalendar bookingCalendar;
+    private final BookingSummary bookingSummary;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    /** Затронутые вещи читаются до каскада, пока бронирования пользователя ещё в БД. */
+    record BookingsRemoved(List<Long> deletedItemIds, List<Long> bookedItemIds) { }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        List<Long> bookedItemIds = bookingRepository.findItemIdsByBookerIdAndStatusAndEndAfter(
+                event.userId(), Booking.BookingStatus.APPROVED, LocalDateTime.now(clock));
+        eventPublisher.publishEvent(new BookingsRemoved(event.ownItemIds(), bookedItemIds));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingsRemoved(BookingsRemoved event) {
+        bookingCalendar.forgetItems(event.deletedItemIds());
+        bookingCalendar.reload(event.bookedItemIds());
+        bookingSummary.forget(event.deletedItemIds());
+        bookingSummary.forget(event.bookedItemIds());
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+
+/**
+ * Результат массового подтверждения по одному бронированию: новый статус либо причина отказа.
+ */
+public record BookingApprovalResultDto(
+        Long bookingId,
+        BookingStatus status,
+        String error
+) {
+    public static BookingApprovalResultDto ok(Long bookingId, BookingStatus status) {
+        return new BookingApprovalResultDto(bookingId, status, null);
+    }
+
+    public static BookingApprovalResultDto failed(Long bookingId, String error) {
+        return new BookingApprovalResultDto(bookingId, null, error);
+    }
+}
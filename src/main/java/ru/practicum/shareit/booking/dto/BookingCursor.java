@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в ленте бронирований для keyset-пагинации: (start, id) последней отданной записи.
+ * Клиенту передаётся в непрозрачном base64url-виде.
+ */
+public record BookingCursor(LocalDateTime start, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static BookingCursor of(BookingDto booking) {
+        return new BookingCursor(booking.start(), booking.id());
+    }
+
+    public String encode() {
+        String raw = start.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep < 0) {
+                throw new ValidationException("Invalid cursor: " + cursor);
+            }
+            return new BookingCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+}
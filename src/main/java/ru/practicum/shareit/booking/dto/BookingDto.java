@@ -10,5 +10,6 @@ public record BookingDto(
         LocalDateTime end,
         Long itemId,
         Long bookerId,
-        BookingStatus status
+        BookingStatus status,
+        String itemName
 ) { }
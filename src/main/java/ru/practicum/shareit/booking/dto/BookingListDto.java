@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.util.List;
+
+/**
+ * Страница бронирований: признак наличия следующей страницы и курсор на неё (null — страница последняя).
+ */
+public record BookingListDto(
+        List<BookingDto> bookings,
+        boolean hasNext,
+        String nextCursor
+) {
+    public static BookingListDto of(List<BookingDto> bookings, boolean hasNext) {
+        String nextCursor = hasNext && !bookings.isEmpty()
+                ? BookingCursor.of(bookings.get(bookings.size() - 1)).encode()
+                : null;
+        return new BookingListDto(bookings, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Промежуток времени [start, end).
+ */
+public record BookingPeriodDto(
+        LocalDateTime start,
+        LocalDateTime end
+) { }
@@ -7,6 +7,8 @@ public record BookingResponseDto(
         LocalDateTime start,
         LocalDateTime end,
         String status,
+        Long itemId,
+        Long bookerId,
         ItemNestedDto item,
         BookerNestedDto booker
 ) {
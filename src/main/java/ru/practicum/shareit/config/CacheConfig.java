@@ -0,0 +1,17 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read-through кэш горячих сущностей (Caffeine, настройки — spring.cache в application.yml).
+ * Кэшируются только проверки существования/владения; изменения идут мимо кэша и сбрасывают запись.
+ * Hit/miss доступны в /actuator/metrics/cache.gets.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Фоновые задачи (@Scheduled): обслуживание секций bookings.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDetailsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +32,13 @@ public class ItemController {
         return itemService.create(ownerId, dto);
     }
 
+    /** Массовый импорт вещей владельца: JSON-массив в формате POST /items. */
+    @PostMapping("/import")
+    public ItemImportResultDto importItems(@RequestHeader(USER_HEADER) Long ownerId,
+                                           @RequestBody List<ItemDto> items) {
+        return itemService.importItems(ownerId, items);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader(USER_HEADER) Long ownerId,
                           @PathVariable Long itemId,
@@ -48,8 +59,8 @@ public class ItemController {
         json.put("ownerId", dto.ownerId());
         json.put("requestId", dto.requestId());
         json.put("comments", dto.comments());
-        json.put("lastBooking", null);
-        json.put("nextBooking", null);
+        json.put("lastBooking", dto.lastBooking());
+        json.put("nextBooking", dto.nextBooking());
 
         return json;
     }
@@ -59,15 +70,22 @@ public class ItemController {
                                                 @RequestParam(defaultValue = "0") Integer from,
                                                 @RequestParam(defaultValue = "10") Integer size) {
         validatePage(from, size);
-        List<ItemWithBookingsDto> all = itemService.getByOwner(ownerId);
-        int start = Math.min(from, Math.max(0, all.size()));
-        int end = Math.min(start + size, all.size());
-        return all.subList(start, end);
+        return itemService.getByOwner(ownerId, from, size);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        return itemService.search(text);
+    public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(defaultValue = "0") Integer from,
+                                @RequestParam(defaultValue = "10") Integer size) {
+        validatePage(from, size);
+        return itemService.search(text, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
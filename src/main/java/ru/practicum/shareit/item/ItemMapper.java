@@ -26,7 +26,10 @@ public final class ItemMapper {
         return dto;
     }
 
-    public static ItemDetailsDto toItemDetailsDto(Item item, List<CommentDto> comments) {
+    public static ItemDetailsDto toItemDetailsDto(Item item,
+                                                  BookingShortDto lastBooking,
+                                                  BookingShortDto nextBooking,
+                                                  List<CommentDto> comments) {
         if (item == null) return null;
         return new ItemDetailsDto(
                 item.getId(),
@@ -35,6 +38,8 @@ public final class ItemMapper {
                 item.getAvailable(),
                 null,
                 null,
+                lastBooking,
+                nextBooking,
                 safe(comments)
         );
     }
@@ -2,17 +2,21 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto create(Long ownerId, ItemDto dto);
+    ItemImportResultDto importItems(Long ownerId, List<ItemDto> items);
     ItemDto update(Long ownerId, Long itemId, ItemDto patch);
 
     ItemDetailsDto getById(Long requesterId, Long itemId);
 
-    List<ItemWithBookingsDto> getByOwner(Long ownerId);
+    List<ItemWithBookingsDto> getByOwner(Long ownerId, int from, int size);
 
-    List<ItemDto> search(String text);
+    List<ItemDto> search(String text, int from, int size);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 
     // Комментарии
     CommentDto addComment(Long userId, Long itemId, CommentCreateDto comment);
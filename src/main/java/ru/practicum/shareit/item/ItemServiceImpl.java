@@ -1,18 +1,24 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingSummary;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDetailsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -30,16 +36,25 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    private static final Sort SORT_BY_ID = Sort.by(Sort.Direction.ASC, "id");
+    /** верхняя граница страницы поиска: короткий запрос вроде "а" не должен выгружать весь каталог */
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+    static final int MAX_IMPORT_SIZE = 50_000;
+    /** кратно hibernate.jdbc.batch_size и allocationSize items_seq */
+    static final int IMPORT_BATCH_SIZE = 500;
+
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final BookingCalendar bookingCalendar;
+    private final BookingSummary bookingSummary;
 
     @Override
     public ItemDto create(final Long ownerId, final ItemDto dto) {
         validateNew(dto);
 
-        final User owner = userRepository.findById(ownerId)
+        final User owner = userRepository.findCachedById(ownerId)
                 .orElseThrow(() -> new NotFoundException("User not found: " + ownerId));
 
         final Item entity = Item.builder()
@@ -53,7 +68,44 @@ public class ItemServiceImpl implements ItemService {
         return ItemMapper.toItemDto(saved);
     }
 
+    /**
+     * Все записи проверяются до вставки: при ошибке не импортируется ничего.
+     */
     @Override
+    public ItemImportResultDto importItems(final Long ownerId, final List<ItemDto> items) {
+        if (items == null || items.isEmpty()) {
+            throw new ValidationException("items must not be empty");
+        }
+        if (items.size() > MAX_IMPORT_SIZE) {
+            throw new ValidationException("At most " + MAX_IMPORT_SIZE + " items per import");
+        }
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                validateNew(items.get(i));
+            } catch (ValidationException e) {
+                throw new ValidationException("items[" + i + "]: " + e.getMessage());
+            }
+        }
+        final User owner = userRepository.findCachedById(ownerId)
+                .orElseThrow(() -> new NotFoundException("User not found: " + ownerId));
+
+        final List<Item> entities = items.stream()
+                .map(dto -> Item.builder()
+                        .name(dto.getName())
+                        .description(dto.getDescription())
+                        .available(dto.getAvailable())
+                        .owner(owner)
+                        .build())
+                .toList();
+
+        final long started = System.nanoTime();
+        final int imported = itemRepository.insertAll(entities, IMPORT_BATCH_SIZE);
+        final long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+        return new ItemImportResultDto(imported, elapsedNanos / 1_000_000, imported * 1_000_000_000L / elapsedNanos);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#itemId")
     public ItemDto update(final Long ownerId, final Long itemId, final ItemDto patch) {
         final Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item not found: " + itemId));
@@ -87,17 +139,28 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemDetailsDto getById(final Long requesterId, final Long itemId) {
-        final Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Item not found: " + itemId));
-
-        final List<Comment> comments = commentRepository.findByItem_Id(itemId);
-        return ItemMapper.toItemDetailsDto(item, comments.stream().map(CommentMapper::toDto).toList());
+        // вещь и комментарии — одним запросом, бронирования — из BookingSummary: не больше двух запросов
+        final List<Object[]> rows = itemRepository.findWithCommentsById(itemId);
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Item not found: " + itemId);
+        }
+        final Item item = (Item) rows.get(0)[0];
+        final List<CommentDto> comments = rows.stream()
+                .filter(row -> row[1] != null)
+                .map(row -> CommentMapper.toDto((Comment) row[1]))
+                .toList();
+        if (!item.getOwner().getId().equals(requesterId)) {
+            return ItemMapper.toItemDetailsDto(item, null, null, comments);
+        }
+        // владельцу — последнее/ближайшее бронирование (в памяти, запрос только при промахе)
+        final BookingSummary.LastNext bookings = bookingSummary.get(List.of(itemId)).get(itemId);
+        return ItemMapper.toItemDetailsDto(item, bookings.last(), bookings.next(), comments);
     }
 
     @Override
-    public List<ItemWithBookingsDto> getByOwner(final Long ownerId) {
+    public List<ItemWithBookingsDto> getByOwner(final Long ownerId, final int from, final int size) {
         final List<Item> items = itemRepository
-                .findByOwner_Id(ownerId, PageRequest.of(0, Integer.MAX_VALUE))
+                .findByOwner_Id(ownerId, PageRequest.of(from / size, size, SORT_BY_ID))
                 .getContent();
 
         if (items.isEmpty()) {
@@ -110,35 +173,45 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.groupingBy(c -> c.getItem().getId(),
                         Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
 
-        final LocalDateTime now = LocalDateTime.now();
+        final Map<Long, BookingSummary.LastNext> bookings = bookingSummary.get(itemIds);
 
         return items.stream()
-                .map(it -> {
-                    final Booking last = bookingRepository
-                            .findFirstByItem_IdAndStartBeforeOrderByEndDesc(it.getId(), now);
-                    final Booking next = bookingRepository
-                            .findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(it.getId(), now, Booking.BookingStatus.APPROVED);
-                    return ItemMapper.toItemWithBookings(
-                            it,
-                            BookingMapper.toShort(last),
-                            BookingMapper.toShort(next),
-                            commentsByItem.getOrDefault(it.getId(), List.of())
-                    );
-                })
+                .map(it -> ItemMapper.toItemWithBookings(
+                        it,
+                        bookings.get(it.getId()).last(),
+                        bookings.get(it.getId()).next(),
+                        commentsByItem.getOrDefault(it.getId(), List.of())
+                ))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<ItemDto> search(String text) {
+    public List<ItemDto> search(final String text, final int from, final int size) {
         if (!StringUtils.hasText(text)) {
             return List.of();
         }
-        return itemRepository.search(text, PageRequest.of(0, Integer.MAX_VALUE))
+        // урезание size сдвинуло бы страницу относительно from
+        if (size > MAX_SEARCH_PAGE_SIZE) {
+            throw new ValidationException("size must not exceed " + MAX_SEARCH_PAGE_SIZE);
+        }
+        return itemRepository.search(text, PageRequest.of(from / size, size))
                 .stream()
                 .map(ItemMapper::toItemDto)
                 .toList();
     }
 
+    @Override
+    public ItemAvailabilityDto getAvailability(final Long itemId, final LocalDateTime from, final LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ValidationException("from must be before to");
+        }
+        itemRepository.findCachedById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found: " + itemId));
+
+        return new ItemAvailabilityDto(itemId, from, to,
+                bookingCalendar.busy(itemId, from, to), bookingCalendar.free(itemId, from, to));
+    }
+
     @Override
     public CommentDto addComment(final Long userId, final Long itemId, final CommentCreateDto comment) {
         if (comment == null || !StringUtils.hasText(comment.text())) {
@@ -153,9 +226,9 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("Only users with finished approved booking can comment this item");
         }
 
-        final Item item = itemRepository.findById(itemId)
+        final Item item = itemRepository.findCachedById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item not found: " + itemId));
-        final User author = userRepository.findById(userId)
+        final User author = userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found: " + userId));
 
         final Comment entity = Comment.builder()
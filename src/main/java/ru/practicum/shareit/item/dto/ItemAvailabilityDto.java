@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Занятость вещи в диапазоне [from, to): подтверждённые бронирования и свободные окна между ними.
+ */
+public record ItemAvailabilityDto(
+        Long itemId,
+        LocalDateTime from,
+        LocalDateTime to,
+        List<BookingPeriodDto> busy,
+        List<BookingPeriodDto> free
+) { }
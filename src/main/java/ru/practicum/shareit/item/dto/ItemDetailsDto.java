@@ -1,7 +1,12 @@
 package ru.practicum.shareit.item.dto;
 
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+
 import java.util.List;
 
+/**
+ * Детали вещи; lastBooking/nextBooking заполняются только для владельца.
+ */
 public record ItemDetailsDto(
         Long id,
         String name,
@@ -9,5 +14,7 @@ public record ItemDetailsDto(
         Boolean available,
         Long ownerId,
         Long requestId,
+        BookingShortDto lastBooking,
+        BookingShortDto nextBooking,
         List<CommentDto> comments
 ) { }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Итог массового импорта вещей: число строк, длительность и скорость вставки.
+ */
+public record ItemImportResultDto(
+        int imported,
+        long elapsedMs,
+        long rowsPerSecond
+) { }
@@ -17,7 +17,8 @@ import ru.practicum.shareit.user.User;
 public class Item {
     /** уникальный идентификатор вещи */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     /** краткое название */
@@ -41,4 +42,8 @@ public class Item {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+
+    /** версия для оптимистичных блокировок (правка вещи, подтверждение бронирований) */
+    @Version
+    private Long version;
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.model.Comment;
 
@@ -7,6 +8,7 @@ import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItem_Id(Long itemId);
+    // автор нужен для authorName в ответе — грузим тем же запросом
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItem_IdIn(Collection<Long> itemIds);
 }
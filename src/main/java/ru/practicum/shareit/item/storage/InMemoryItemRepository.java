@@ -1,8 +1,8 @@
 package ru.practicum.shareit.item.storage;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -13,6 +13,8 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
@@ -25,6 +27,7 @@ import ru.practicum.shareit.item.model.Item;
 public abstract class InMemoryItemRepository implements ItemRepository {
 
     private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private final ItemSearchIndex searchIndex = new ItemSearchIndex();
     private final AtomicLong idSeq = new AtomicLong(0);
 
     @Override
@@ -33,14 +36,26 @@ public abstract class InMemoryItemRepository implements ItemRepository {
             item.setId(idSeq.incrementAndGet());
         }
         items.put(item.getId(), item);
+        searchIndex.put(item.getId(), item.getName(), item.getDescription());
         return item;
     }
 
+    @Override
+    public int insertAll(final List<Item> batch, final int batchSize) {
+        batch.forEach(this::save);
+        return batch.size();
+    }
+
     @Override
     public Optional<Item> findById(final Long id) {
         return Optional.ofNullable(items.get(id));
     }
 
+    @Override
+    public Optional<Item> findCachedById(final Long id) {
+        return findById(id);
+    }
+
     @Override
     public List<Item> findAll() {
         return new ArrayList<>(items.values());
@@ -49,24 +64,41 @@ public abstract class InMemoryItemRepository implements ItemRepository {
     @Override
     public void deleteById(final Long id) {
         items.remove(id);
+        searchIndex.remove(id);
     }
 
     @Override
     public Page<Item> findByOwner_Id(final Long ownerId, final Pageable pageable) {
         final List<Item> data = items.values().stream()
                 .filter(i -> i.getOwner() != null && Objects.equals(i.getOwner().getId(), ownerId))
+                .sorted(Comparator.comparing(Item::getId))
                 .collect(Collectors.toList());
-        return new PageImpl<>(data, pageable, data.size());
+        return page(data, pageable);
     }
 
     @Override
-    public Page<Item> search(final String text, final Pageable pageable) {
-        final String q = text == null ? "" : text.toLowerCase(Locale.ROOT);
-        final List<Item> data = items.values().stream()
-                .filter(i -> Boolean.TRUE.equals(i.getAvailable()))
-                .filter(i -> (i.getName() != null && i.getName().toLowerCase(Locale.ROOT).contains(q))
-                        || (i.getDescription() != null && i.getDescription().toLowerCase(Locale.ROOT).contains(q)))
-                .collect(Collectors.toList());
-        return new PageImpl<>(data, pageable, data.size());
+    public Slice<Item> search(final String text, final Pageable pageable) {
+        final ItemSearchIndex.Query query = new ItemSearchIndex.Query(text);
+        final List<Item> data = new ArrayList<>();
+        for (long id : searchIndex.candidates(query)) {
+            final Item item = items.get(id);
+            if (item != null && Boolean.TRUE.equals(item.getAvailable())
+                    && query.matches(item.getName(), item.getDescription())) {
+                data.add(item);
+            }
+        }
+        // кандидаты уже упорядочены по id — стабильная сортировка по рангу даёт порядок JPA-запроса
+        data.sort(Comparator.comparingInt(i -> query.rank(i.getName())));
+        final Page<Item> page = page(data, pageable);
+        return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+    }
+
+    private static Page<Item> page(final List<Item> data, final Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(data, pageable, data.size());
+        }
+        final int start = (int) Math.min(pageable.getOffset(), data.size());
+        final int end = Math.min(start + pageable.getPageSize(), data.size());
+        return new PageImpl<>(data.subList(start, end), pageable, data.size());
     }
 }
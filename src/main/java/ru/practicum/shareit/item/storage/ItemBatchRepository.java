@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.storage;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Пакетная вставка вещей.
+ */
+public interface ItemBatchRepository {
+
+    /**
+     * Сохраняет вещи одной транзакцией, сбрасывая и очищая контекст персистентности
+     * каждые batchSize записей. Возвращает число вставленных строк.
+     */
+    int insertAll(List<Item> items, int batchSize);
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.storage;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Реализация фрагмента {@link ItemBatchRepository}.
+ * Id берутся из пулового sequence (items_seq), поэтому Hibernate группирует INSERT в JDBC-батчи
+ * (hibernate.jdbc.batch_size); clear не даёт контексту расти на больших импортах.
+ */
+class ItemBatchRepositoryImpl implements ItemBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int insertAll(List<Item> items, int batchSize) {
+        int count = 0;
+        for (Item item : items) {
+            entityManager.persist(item);
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return count;
+    }
+}
@@ -1,21 +1,69 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.item.model.Item;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+import java.util.List;
+import java.util.Optional;
 
-    Page<Item> findByOwner_Id(Long ownerId, Pageable pageable);
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemBatchRepository {
+
+    /**
+     * findById через кэш {@link CacheConfig#ITEMS}; владелец загружается сразу, т.к. сущность живёт вне сессии.
+     * Для изменения вещь загружать через findById.
+     */
+    @EntityGraph(attributePaths = "owner")
+    @Cacheable(cacheNames = CacheConfig.ITEMS, unless = "#result == null")
+    Optional<Item> findCachedById(Long id);
 
+    /**
+     * Вещь с владельцем и её комментарии с авторами одним запросом — для карточки вещи.
+     * Строка — пара (вещь, комментарий); у вещи без комментариев одна строка с null; пусто — вещи нет.
+     */
     @Query("""
+        select i, c from Item i join fetch i.owner
+        left join Comment c on c.item = i left join fetch c.author
+        where i.id = ?1
+        order by c.id
+    """)
+    List<Object[]> findWithCommentsById(Long id);
+
+    /** CAS версии вещи; 0 — вещь изменена параллельно (например, подтверждена другая бронь). */
+    @Modifying
+    @Query("update Item i set i.version = i.version + 1 where i.id = ?1 and i.version = ?2")
+    int incrementVersion(Long id, Long expectedVersion);
+
+    Page<Item> findByOwner_Id(Long ownerId, Pageable pageable);
+
+    @Query("select i.id from Item i where i.owner.id = ?1")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    /**
+     * Поиск подстроки в названии/описании доступных вещей, по релевантности:
+     * точное совпадение названия, затем префикс названия, вхождение в название, вхождение в описание.
+     * На PostgreSQL условия обслуживаются триграммными GIN-индексами (schema-postgresql.sql).
+     * Slice — без count-запроса по всему каталогу.
+     */
+    @Query(value = """
         select i from Item i
         where i.available = true and (
             upper(i.name) like upper(concat('%', ?1, '%')) or
             upper(i.description) like upper(concat('%', ?1, '%'))
         )
+        order by case
+            when upper(i.name) = upper(?1) then 0
+            when upper(i.name) like upper(concat(?1, '%')) then 1
+            when upper(i.name) like upper(concat('%', ?1, '%')) then 2
+            else 3
+        end, i.id
     """)
-    Page<Item> search(String text, Pageable pageable);
+    Slice<Item> search(String text, Pageable pageable);
 }
@@ -0,0 +1,232 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инкрементальный n-граммный индекс для подстрочного поиска вещей (профиль inmemory).
+ * Для названия и описания индексируются все 1-, 2- и 3-граммы в верхнем регистре;
+ * posting-листы — отсортированные массивы id.
+ * Поиск пересекает posting-листы граммов запроса и проверяет только найденных кандидатов.
+ */
+final class ItemSearchIndex {
+
+    static final int MAX_GRAM = 3;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, String[]> indexed = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void put(final long id, final String name, final String description) {
+        final String[] fields = {normalize(name), normalize(description)};
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            for (String gram : grams(fields)) {
+                postings.computeIfAbsent(gram, g -> new PostingList()).add(id);
+            }
+            indexed.put(id, fields);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(final long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Отсортированные id документов, которые могут содержать запрос; требуют проверки через {@link Query#matches}.
+     */
+    long[] candidates(final Query query) {
+        lock.readLock().lock();
+        try {
+            if (query.literals.isEmpty()) {
+                return indexed.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            }
+            final List<PostingList> lists = new ArrayList<>();
+            for (String literal : query.literals) {
+                for (String gram : queryGrams(literal)) {
+                    final PostingList list = postings.get(gram);
+                    if (list == null) {
+                        return new long[0];
+                    }
+                    lists.add(list);
+                }
+            }
+            return intersect(lists);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(final long id) {
+        final String[] old = indexed.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old)) {
+            final PostingList list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    static String normalize(final String value) {
+        return value == null ? "" : value.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(final String[] fields) {
+        final Set<String> result = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i < field.length(); i++) {
+                for (int n = 1; n <= MAX_GRAM && i + n <= field.length(); n++) {
+                    result.add(field.substring(i, i + n));
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Для литерала короче MAX_GRAM — он сам, иначе все его триграммы. */
+    private static Set<String> queryGrams(final String literal) {
+        if (literal.length() <= MAX_GRAM) {
+            return Set.of(literal);
+        }
+        final Set<String> result = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM <= literal.length(); i++) {
+            result.add(literal.substring(i, i + MAX_GRAM));
+        }
+        return result;
+    }
+
+    private static long[] intersect(final List<PostingList> lists) {
+        lists.sort(Comparator.comparingInt(l -> l.size));
+        final PostingList smallest = lists.get(0);
+        final long[] out = new long[smallest.size];
+        int count = 0;
+        candidates:
+        for (int i = 0; i < smallest.size; i++) {
+            final long id = smallest.ids[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(id)) {
+                    continue candidates;
+                }
+            }
+            out[count++] = id;
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /** Отсортированный по возрастанию список id. Id выдаются последовательно, поэтому add почти всегда — дописывание в конец. */
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(final long id) {
+            int pos = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0 && pos < size) {
+                return;
+            }
+            pos = pos < 0 ? -pos - 1 : pos;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean remove(final long id) {
+            final int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(final long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    /**
+     * Запрос с семантикой JPA-поиска: upper(поле) LIKE upper('%текст%'),
+     * где '%' и '_' в тексте — шаблоны, а '\' экранирует следующий символ.
+     */
+    static final class Query {
+        private final String text;
+        private final List<String> literals = new ArrayList<>();
+        private final Pattern prefix;
+        private final Pattern contains;
+
+        Query(final String text) {
+            this.text = normalize(text);
+            final StringBuilder regex = new StringBuilder();
+            final StringBuilder literal = new StringBuilder();
+            boolean wildcards = false;
+            for (int i = 0; i < this.text.length(); i++) {
+                final char c = this.text.charAt(i);
+                if (c == '\\' && i + 1 < this.text.length()) {
+                    wildcards = true;
+                    literal.append(this.text.charAt(++i));
+                } else if (c == '%' || c == '_') {
+                    wildcards = true;
+                    flush(literal, regex);
+                    regex.append(c == '%' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            flush(literal, regex);
+            this.prefix = wildcards ? Pattern.compile(regex + ".*", Pattern.DOTALL) : null;
+            this.contains = wildcards ? Pattern.compile(".*" + regex + ".*", Pattern.DOTALL) : null;
+        }
+
+        private void flush(final StringBuilder literal, final StringBuilder regex) {
+            if (literal.length() > 0) {
+                literals.add(literal.toString());
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+        }
+
+        boolean matches(final String name, final String description) {
+            return contains(normalize(name)) || contains(normalize(description));
+        }
+
+        /** Ранг релевантности, как в ItemRepository.search: 0 — точное название, 1 — префикс, 2 — в названии, 3 — в описании. */
+        int rank(final String name) {
+            final String value = normalize(name);
+            if (value.equals(text)) {
+                return 0;
+            }
+            if (prefix == null ? value.startsWith(text) : prefix.matcher(value).matches()) {
+                return 1;
+            }
+            return contains(value) ? 2 : 3;
+        }
+
+        private boolean contains(final String value) {
+            return contains == null ? value.contains(text) : contains.matcher(value).matches();
+        }
+    }
+}
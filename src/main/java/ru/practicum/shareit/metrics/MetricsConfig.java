@@ -0,0 +1,46 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Подсчёт SQL-выражений на HTTP-запрос (shareit.http.queries). Каждое обращение к соединению и выражению
+ * идёт через JDK-прокси, поэтому включается явно: shareit.metrics.query-count.enabled (в профиле test — да).
+ * Метрики Hibernate (hibernate.*) и пула Hikari (hikaricp.*) Spring Boot регистрирует сам
+ * при наличии hibernate-micrometer и actuator.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.metrics.query-count.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+    // в web-slice тестах реестра метрик может не быть
+    private final ObjectProvider<MeterRegistry> registry;
+
+    /** Счёт на уровне пула: видны и выражения Hibernate, и JdbcTemplate (batchUpdate в BookingBatchRepository). */
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)
+                        ? new QueryCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        registry.ifAvailable(r -> interceptors.addInterceptor(new QueryCountInterceptor(r)));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.metrics;
+
+/**
+ * Число SQL-выражений, отправленных в БД текущим потоком: каждый вызов execute, executeQuery,
+ * executeUpdate или executeBatch на соединении из {@link QueryCountingDataSource} — и от Hibernate,
+ * и от JdbcTemplate (в том числе batchUpdate).
+ * JDBC-батч считается одним выражением: это один round trip.
+ * Поток запроса сбрасывает и читает счётчик в {@link QueryCountInterceptor}.
+ */
+final class QueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private QueryCounter() {
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+
+    static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    static int current() {
+        return COUNT.get()[0];
+    }
+}
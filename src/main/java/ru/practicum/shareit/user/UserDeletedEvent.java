@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user;
+
+import java.util.List;
+
+/**
+ * Пользователь удаляется. Публикуется в транзакции удаления до каскада: синхронные слушатели
+ * ещё видят его вещи и бронирования, а состояние в памяти правят после коммита.
+ *
+ * @param ownItemIds вещи пользователя, которые уйдут каскадом вместе с ним
+ */
+public record UserDeletedEvent(Long userId, List<Long> ownItemIds) {
+}
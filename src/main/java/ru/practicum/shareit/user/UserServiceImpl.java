@@ -1,11 +1,18 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.List;
@@ -18,6 +25,10 @@ public class UserServiceImpl implements UserService {
     private static final Pattern SIMPLE_EMAIL = Pattern.compile(".+@.+\\..+");
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
     @Override
     public User create(User user) {
@@ -31,6 +42,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     public User update(Long id, User patch) {
         User actual = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User not found: " + id));
@@ -56,7 +68,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getById(Long id) {
-        return userRepository.findById(id)
+        return userRepository.findCachedById(id)
                 .orElseThrow(() -> new NotFoundException("User not found: " + id));
     }
 
@@ -66,7 +78,19 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     public void deleteById(Long id) {
-        userRepository.deleteById(id);
+        // каскад уносит вещи пользователя и его бронирования: модуль бронирований узнаёт об этом из события
+        List<Long> ownItems = transactionTemplate.execute(status -> {
+            List<Long> itemIds = itemRepository.findIdsByOwnerId(id);
+            eventPublisher.publishEvent(new UserDeletedEvent(id, itemIds));
+            userRepository.deleteById(id);
+            return itemIds;
+        });
+        // из кэша вещей — только удалённые каскадом, после коммита
+        Cache items = cacheManager.getCache(CacheConfig.ITEMS);
+        if (items != null) {
+            ownItems.forEach(items::evict);
+        }
     }
 }
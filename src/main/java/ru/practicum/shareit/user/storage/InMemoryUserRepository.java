@@ -35,6 +35,16 @@ public abstract class InMemoryUserRepository implements UserRepository {
         return Optional.ofNullable(users.get(id));
     }
 
+    @Override
+    public Optional<User> findCachedById(final Long id) {
+        return findById(id);
+    }
+
+    @Override
+    public boolean existsById(final Long id) {
+        return users.containsKey(id);
+    }
+
     @Override
     public List<User> findAll() {
         return new ArrayList<>(users.values());
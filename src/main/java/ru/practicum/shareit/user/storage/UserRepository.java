@@ -1,7 +1,9 @@
 // java-shareit/src/main/java/ru/practicum/shareit/user/storage/UserRepository.java
 package ru.practicum.shareit.user.storage;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.user.User;
 
 import java.util.Optional;
@@ -9,4 +11,11 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     Optional<User> findByEmail(String email);
+
+    /**
+     * findById через кэш {@link CacheConfig#USERS} — для проверок существования и ссылок на пользователя.
+     * Возвращает отсоединённую сущность: для изменения загружать через findById.
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS, unless = "#result == null")
+    Optional<User> findCachedById(Long id);
 }
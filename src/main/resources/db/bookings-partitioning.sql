@@ -0,0 +1,44 @@
+-- Перевод bookings на помесячные секции по end_date (только PostgreSQL, после schema-postgresql.sql).
+-- Выполняет BookingPartitionMaintainer при shareit.bookings.partitioning.enabled=true, если bookings
+-- ещё обычная таблица; можно выполнить и вручную (psql -f) в окно обслуживания до включения флага.
+-- Обычная таблица переименовывается в bookings_unpartitioned, строки копируются в новую секционированную
+-- bookings (в bookings_default, по месяцам их разносит BookingPartitionMaintainer), старая таблица удаляется.
+-- Один DO-блок — одна транзакция: ACCESS EXCLUSIVE на bookings держится всё время копирования.
+-- Обратного перехода нет: PRIMARY KEY секционированной таблицы обязан включать ключ секционирования, (id, end_date).
+DO '
+DECLARE
+    index_defs TEXT[];
+    index_def TEXT;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE oid = ''bookings''::regclass AND relkind = ''r'') THEN
+        SELECT COALESCE(array_agg(indexdef), ''{}'') INTO index_defs FROM pg_indexes
+        WHERE schemaname = current_schema() AND tablename = ''bookings''
+          AND indexname NOT IN (SELECT conname FROM pg_constraint WHERE conrelid = ''bookings''::regclass);
+        ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+        CREATE TABLE bookings (
+            id BIGINT NOT NULL,
+            start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+            end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+            item_id BIGINT NOT NULL,
+            booker_id BIGINT NOT NULL,
+            status VARCHAR(16) NOT NULL,
+            owner_id BIGINT NOT NULL,
+            CONSTRAINT pk_bookings PRIMARY KEY (id, end_date),
+            CONSTRAINT fk_bookings_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+            CONSTRAINT fk_bookings_booker FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE,
+            CONSTRAINT chk_booking_dates CHECK (start_date < end_date)
+        ) PARTITION BY RANGE (end_date);
+        CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+        INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, owner_id)
+        SELECT id, start_date, end_date, item_id, booker_id, status, owner_id FROM bookings_unpartitioned;
+        -- вместе со старой таблицей уходят её индексы и EXCLUDE: имена освобождаются для новой
+        DROP TABLE bookings_unpartitioned;
+        FOREACH index_def IN ARRAY index_defs LOOP
+            EXECUTE index_def;
+        END LOOP;
+        ALTER TABLE bookings_default ADD CONSTRAINT ex_bookings_approved_overlap
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+            WHERE (status = ''APPROVED'');
+    END IF;
+    CREATE SCHEMA IF NOT EXISTS bookings_archive;
+END';
@@ -0,0 +1,44 @@
+-- Только для PostgreSQL; выполняется после schema.sql.
+
+-- Поиск вещей: upper(name|description) LIKE '%текст%' обслуживается триграммными индексами по тем же выражениям.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm        ON items USING gin (upper(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (upper(description) gin_trgm_ops);
+
+-- bookings.owner_id добавлен к существующей таблице: один раз заполняется из items и становится NOT NULL.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = ''bookings'' AND column_name = ''owner_id'' AND is_nullable = ''YES'') THEN
+        UPDATE bookings b SET owner_id = i.owner_id FROM items i WHERE i.id = b.item_id AND b.owner_id IS NULL;
+        ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+    END IF;
+END';
+
+-- Перевод bookings на помесячные секции — отдельная миграция db/bookings-partitioning.sql:
+-- её выполняет BookingPartitionMaintainer при shareit.bookings.partitioning.enabled=true
+-- (или оператор вручную в окно обслуживания), при каждом старте она не запускается.
+
+-- Подтверждённые бронирования одной вещи не пересекаются. На секционированной таблице EXCLUDE
+-- задаётся для каждой секции отдельно (BookingPartitionMaintainer), здесь — для обычной таблицы и bookings_default.
+-- DO-блоки в одинарных кавычках: разделитель скриптов Spring не режет строку по ';' внутри литерала.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+DO '
+DECLARE
+    target TEXT;
+BEGIN
+    target := CASE WHEN to_regclass(''bookings_default'') IS NOT NULL THEN ''bookings_default'' ELSE ''bookings'' END;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = ''ex_bookings_approved_overlap'' AND conrelid = target::regclass) THEN
+        EXECUTE format(''ALTER TABLE %I ADD CONSTRAINT ex_bookings_approved_overlap ''
+            || ''EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&) ''
+            || ''WHERE (status = ''''APPROVED'''')'', target);
+    END IF;
+END';
+
+-- id раньше выдавали identity-колонки: sequence не должны отставать от уже занятых id.
+SELECT setval('users_seq', (SELECT MAX(id) FROM users)) WHERE (SELECT MAX(id) FROM users) > (SELECT last_value FROM users_seq);
+SELECT setval('requests_seq', (SELECT MAX(id) FROM requests)) WHERE (SELECT MAX(id) FROM requests) > (SELECT last_value FROM requests_seq);
+SELECT setval('items_seq', (SELECT MAX(id) FROM items)) WHERE (SELECT MAX(id) FROM items) > (SELECT last_value FROM items_seq);
+SELECT setval('bookings_seq', (SELECT MAX(id) FROM bookings)) WHERE (SELECT MAX(id) FROM bookings) > (SELECT last_value FROM bookings_seq);
+SELECT setval('comments_seq', (SELECT MAX(id) FROM comments)) WHERE (SELECT MAX(id) FROM comments) > (SELECT last_value FROM comments_seq);
@@ -1,3 +1,11 @@
+-- Id всех сущностей — из пуловых sequence: шаг совпадает с allocationSize,
+-- Hibernate выдаёт 50 id на один nextval и может группировать INSERT в JDBC-батчи.
+CREATE SEQUENCE IF NOT EXISTS users_seq    START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq    START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
                                      id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
                                      name VARCHAR(255) NOT NULL,
@@ -21,12 +29,16 @@ CREATE TABLE IF NOT EXISTS items (
     is_available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_items_owner
     FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE,
     CONSTRAINT fk_items_request
     FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE SET NULL
     );
-CREATE INDEX IF NOT EXISTS idx_items_owner ON items(owner_id);
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+DROP INDEX IF EXISTS idx_items_owner;
+-- вещи владельца по порядку id (getByOwner)
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items(owner_id, id);
 CREATE INDEX IF NOT EXISTS idx_items_available ON items(is_available);
 
 CREATE TABLE IF NOT EXISTS bookings (
@@ -36,15 +48,35 @@ CREATE TABLE IF NOT EXISTS bookings (
                                         item_id BIGINT NOT NULL,
                                         booker_id BIGINT NOT NULL,
                                         status VARCHAR(16) NOT NULL,
+                                        owner_id BIGINT NOT NULL,
     CONSTRAINT fk_bookings_item
     FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT fk_bookings_booker
     FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE,
     CONSTRAINT chk_booking_dates CHECK (start_date < end_date)
     );
-CREATE INDEX IF NOT EXISTS idx_bookings_booker ON bookings(booker_id, start_date DESC);
-CREATE INDEX IF NOT EXISTS idx_bookings_item   ON bookings(item_id);
-CREATE INDEX IF NOT EXISTS idx_bookings_status ON bookings(status);
+-- owner_id — копия items.owner_id (владелец вещи не меняется); старые строки заполняет schema-postgresql.sql
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+DROP INDEX IF EXISTS idx_bookings_booker;
+DROP INDEX IF EXISTS idx_bookings_item;
+-- статусов всего четыре: отдельный индекс по status не селективен
+DROP INDEX IF EXISTS idx_bookings_status;
+DROP INDEX IF EXISTS idx_bookings_item_start;
+-- Индексы по шаблонам доступа BookingRepository (проверяются BookingIndexPlanTest).
+-- (start_date DESC, id DESC) совпадает с порядком выдачи и keyset-курсором списков бронирований.
+-- Списки букера: ALL/CURRENT/PAST/FUTURE
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start  ON bookings(booker_id, start_date DESC, id DESC);
+-- Списки букера WAITING/REJECTED и проверка права на отзыв
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status ON bookings(booker_id, status, start_date DESC, id DESC);
+-- Списки владельца: ALL/CURRENT/PAST/FUTURE и WAITING/REJECTED, без соединения с items
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start   ON bookings(owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status  ON bookings(owner_id, status, start_date DESC, id DESC);
+-- Последнее бронирование: max(end_date) в findSummaryRows
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end      ON bookings(item_id, end_date DESC);
+-- Ближайшее бронирование (findSummaryRows) и проверка пересечений
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status   ON bookings(item_id, status, start_date);
+-- Календарь занятости: незавершённые подтверждённые интервалы (перечитывание раз в минуту)
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end    ON bookings(status, end_date);
 
 CREATE TABLE IF NOT EXISTS comments (
                                         id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+/**
+ * Массовое подтверждение, когда пакет отвергнут ограничением ex_bookings_approved_overlap (только PostgreSQL):
+ * репозитории подменены моками, нарушение ограничения — исключением из updateStatuses.
+ */
+class BookingApproveAllFallbackTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final BookingCalendar bookingCalendar = Mockito.mock(BookingCalendar.class);
+    private final BookingServiceImpl service = new BookingServiceImpl(bookingRepository, itemRepository,
+            Mockito.mock(UserRepository.class), new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+            bookingCalendar, Mockito.mock(BookingSummary.class));
+
+    @Test
+    void approveAll_constraintViolation_shouldFailOnlyOverlappingBookings() {
+        User owner = User.builder().id(7L).name("Owner").email("owner@test.io").build();
+        User booker = User.builder().id(8L).name("Booker").email("booker@test.io").build();
+        Booking taken = booking(1L, item(10L, owner), booker);
+        Booking free = booking(2L, item(20L, owner), booker);
+        when(bookingRepository.findWithItemByIdIn(any())).thenReturn(List.of(taken, free));
+        when(bookingRepository.findOverlappingByItemIds(any(), any(), any(), any())).thenReturn(List.of());
+        when(bookingRepository.updateStatuses(anyList(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("ex_bookings_approved_overlap"));
+        // по одному: первое пересекается с бронью, подтверждённой на другом узле
+        when(bookingRepository.findWithItemById(1L)).thenReturn(Optional.of(taken));
+        when(bookingRepository.findWithItemById(2L)).thenReturn(Optional.of(free));
+        when(bookingRepository.existsOverlapping(eq(10L), any(), any(), eq(BookingStatus.APPROVED), eq(1L)))
+                .thenReturn(true);
+        when(bookingRepository.updateStatus(2L, BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(1);
+        when(itemRepository.incrementVersion(anyLong(), any())).thenReturn(1);
+
+        List<BookingApprovalResultDto> results = service.approveAll(7L, List.of(1L, 2L), true);
+
+        assertThat(results).containsExactly(
+                BookingApprovalResultDto.failed(1L, "Item is already booked for this period"),
+                BookingApprovalResultDto.ok(2L, BookingStatus.APPROVED));
+        verify(bookingRepository, never()).updateStatus(eq(1L), any(), any());
+        verify(bookingCalendar).add(20L, START, START.plusDays(1));
+        verify(bookingCalendar, never()).add(eq(10L), any(), any());
+    }
+
+    private static Item item(Long id, User owner) {
+        return Item.builder().id(id).name("Вещь").description("Описание").available(true).owner(owner).version(0L)
+                .build();
+    }
+
+    private static Booking booking(Long id, Item item, User booker) {
+        return Booking.builder().id(id).start(START).end(START.plusDays(1)).item(item).booker(booker)
+                .status(BookingStatus.WAITING).ownerId(item.getOwner().getId()).build();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+
+/**
+ * Календарь занятости без Spring: загрузка из репозитория, пересечения, свободные окна, перечитывание.
+ */
+class BookingCalendarTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private BookingRepository repository;
+    private BookingCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(BookingRepository.class);
+        Mockito.when(repository.findPeriodsByStatusAndEndAfter(Mockito.eq(Booking.BookingStatus.APPROVED), Mockito.any()))
+                .thenReturn(List.of(
+                        new Object[]{1L, T.plusDays(5), T.plusDays(6)},
+                        new Object[]{1L, T.plusDays(1), T.plusDays(2)},
+                        new Object[]{2L, T, T.plusDays(30)}));
+        calendar = new BookingCalendar(repository, Clock.fixed(T.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        calendar.reload();
+    }
+
+    @Test
+    void isBusy_shouldDetectOverlapButNotAdjacency() {
+        assertThat(calendar.isBusy(1L, T.plusHours(36), T.plusDays(3))).isTrue();
+        assertThat(calendar.isBusy(1L, T.plusDays(2), T.plusDays(5))).isFalse();
+        assertThat(calendar.isBusy(1L, T, T.plusDays(1))).isFalse();
+        assertThat(calendar.isBusy(3L, T, T.plusDays(1))).isFalse();
+    }
+
+    @Test
+    void add_shouldKeepIntervalsOrdered() {
+        calendar.add(1L, T.plusDays(3), T.plusDays(4));
+        calendar.add(1L, T.plusDays(3), T.plusDays(4));
+
+        assertThat(calendar.busy(1L, T, T.plusDays(10))).containsExactly(
+                new BookingPeriodDto(T.plusDays(1), T.plusDays(2)),
+                new BookingPeriodDto(T.plusDays(3), T.plusDays(4)),
+                new BookingPeriodDto(T.plusDays(5), T.plusDays(6)));
+    }
+
+    @Test
+    void free_shouldReturnGapsInsideRange() {
+        assertThat(calendar.free(1L, T.plusHours(36), T.plusDays(7))).containsExactly(
+                new BookingPeriodDto(T.plusDays(2), T.plusDays(5)),
+                new BookingPeriodDto(T.plusDays(6), T.plusDays(7)));
+        assertThat(calendar.free(2L, T.plusDays(1), T.plusDays(2))).isEmpty();
+    }
+
+    @Test
+    void isBusy_overlappingStoredIntervals_shouldStillFindLongOne() {
+        // длинный интервал начинается раньше короткого, но заканчивается позже: концы не отсортированы
+        calendar.add(3L, T, T.plusDays(10));
+        calendar.add(3L, T.plusDays(1), T.plusDays(2));
+
+        assertThat(calendar.isBusy(3L, T.plusDays(5), T.plusDays(6))).isTrue();
+        assertThat(calendar.busy(3L, T.plusDays(5), T.plusDays(6)))
+                .containsExactly(new BookingPeriodDto(T, T.plusDays(10)));
+    }
+
+    @Test
+    void reload_shouldDropIntervalsMissingInDatabase() {
+        Mockito.when(repository.findPeriodsByStatusAndEndAfter(Mockito.eq(Booking.BookingStatus.APPROVED), Mockito.any()))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, T, T.plusDays(30)}));
+
+        calendar.reload();
+
+        assertThat(calendar.busy(1L, T, T.plusDays(10))).isEmpty();
+        assertThat(calendar.isBusy(2L, T, T.plusDays(1))).isTrue();
+    }
+
+    @Test
+    void reloadItems_andForget_shouldReplaceOnlyGivenItems() {
+        Mockito.when(repository.findPeriodsByItemIdsAndStatusAndEndAfter(
+                        Mockito.eq(List.of(1L)), Mockito.eq(Booking.BookingStatus.APPROVED), Mockito.any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, T.plusDays(5), T.plusDays(6)}));
+
+        calendar.reload(List.of(1L));
+        calendar.forgetItems(List.of(2L));
+
+        assertThat(calendar.busy(1L, T, T.plusDays(10)))
+                .containsExactly(new BookingPeriodDto(T.plusDays(5), T.plusDays(6)));
+        assertThat(calendar.isBusy(2L, T, T.plusDays(1))).isFalse();
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+/**
+ * Параллельные подтверждения бронирований одной вещи.
+ * Без @Transactional: каждый поток коммитит сам, данные удаляются в @AfterEach.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = save(User.builder().name("Owner").email("race-owner@test.io").build());
+        item = itemRepository.save(Item.builder()
+                .name("Бетономешалка")
+                .description("Одна на всех")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findAll().stream()
+                .filter(b -> b.getItem().getId().equals(item.getId()))
+                .toList());
+        itemRepository.deleteById(item.getId());
+        users.forEach(u -> userRepository.deleteById(u.getId()));
+    }
+
+    @Test
+    void approve_concurrentOverlappingBookings_shouldApproveExactlyOne() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User booker = save(User.builder().name("Booker" + i).email("race-" + i + "@test.io").build());
+            // интервалы сдвинуты, но все пересекаются между собой
+            BookingDto booking = bookingService.create(booker.getId(), new BookingCreateDto(
+                    item.getId(), start.plusHours(i), start.plusDays(1).plusHours(i)));
+            bookingIds.add(booking.id());
+        }
+
+        assertThat(approveConcurrently(bookingIds)).isEqualTo(1);
+        assertThat(bookingRepository.findAllById(bookingIds))
+                .filteredOn(b -> b.getStatus() == Booking.BookingStatus.APPROVED)
+                .hasSize(1);
+    }
+
+    @Test
+    void approve_sameBookingConcurrently_shouldSucceedOnce() throws Exception {
+        User booker = save(User.builder().name("Booker").email("race-same@test.io").build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.create(booker.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(1)));
+
+        assertThat(approveConcurrently(Collections.nCopies(THREADS, booking.id()))).isEqualTo(1);
+    }
+
+    /** Одновременно подтверждает бронирования, возвращает число успешных подтверждений. */
+    private int approveConcurrently(List<Long> bookingIds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(bookingIds.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (Long bookingId : bookingIds) {
+                results.add(pool.submit(() -> {
+                    go.await();
+                    try {
+                        bookingService.approve(owner.getId(), bookingId, true);
+                        return true;
+                    } catch (ConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            go.countDown();
+
+            int approved = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    approved++;
+                }
+            }
+            return approved;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private User save(User user) {
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+}
@@ -2,12 +2,14 @@ package ru.practicum.shareit.booking;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDateTime;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +19,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
@@ -46,7 +49,8 @@ class BookingControllerTest {
                 payload.end(),
                 payload.itemId(),
                 55L,
-                BookingStatus.WAITING
+                BookingStatus.WAITING,
+                "Дрель"
         );
 
         Mockito.when(bookingService.create(any(), any())).thenReturn(response);
@@ -58,6 +62,25 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(123)))
                 .andExpect(jsonPath("$.itemId", is(777)))
-                .andExpect(jsonPath("$.status", is("WAITING")));
+                .andExpect(jsonPath("$.status", is("WAITING")))
+                .andExpect(jsonPath("$.item.id", is(777)))
+                .andExpect(jsonPath("$.item.name", is("Дрель")))
+                .andExpect(jsonPath("$.booker.id", is(55)));
+    }
+
+    @Test
+    void approveAll_shouldReturnResultPerBooking() throws Exception {
+        Mockito.when(bookingService.approveAll(42L, List.of(1L, 2L), true)).thenReturn(List.of(
+                BookingApprovalResultDto.ok(1L, BookingStatus.APPROVED),
+                BookingApprovalResultDto.failed(2L, "Only WAITING booking can be changed")));
+
+        mvc.perform(patch("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 42L)
+                        .param("approved", "true")
+                        .content(objectMapper.writeValueAsString(List.of(1L, 2L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].error", is("Only WAITING booking can be changed")));
     }
 }
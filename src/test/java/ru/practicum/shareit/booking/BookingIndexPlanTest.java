@@ -0,0 +1,336 @@
+package ru.practicum.shareit.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+
+/**
+ * EXPLAIN (H2) для каждого метода BookingRepository на индексах из schema.sql.
+ * Каждый метод вызывается по-настоящему, SQL с параметрами перехватывается на уровне JDBC
+ * (тот, что строит Hibernate или JdbcTemplate) и передаётся в EXPLAIN с теми же параметрами.
+ * Падает, если хотя бы один шаблон доступа читает bookings полным сканированием
+ * или если в репозитории появился метод без записи в {@link #CALLS}.
+ * Без @Transactional: CREATE INDEX и ANALYZE в H2 коммитят транзакцию, данные удаляются в @AfterAll.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingIndexPlanTest {
+
+    private static final long BASE_ID = 9_000_000L;
+    private static final int USERS = 50;
+    private static final int ITEMS = 200;
+    private static final int BOOKINGS = 5_000;
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+    private static final Pattern BOOKINGS_SCAN = Pattern.compile("(?i)\\bbookings\\.tableScan\\b");
+
+    private static final long USER = BASE_ID + 1;
+    private static final long ITEM = BASE_ID + 1;
+    private static final long BOOKING = BASE_ID + 1;
+    private static final List<Long> ITEMS_PAGE = List.of(BASE_ID + 1, BASE_ID + 2);
+    private static final Pageable PAGE = PageRequest.of(0, 11, Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id")));
+    private static final Pageable LIMIT = PageRequest.of(0, 11);
+    private static final long CURSOR_ID = BASE_ID + 100_000;
+    private static final BookingStatus APPROVED = BookingStatus.APPROVED;
+    private static final BookingStatus WAITING = BookingStatus.WAITING;
+
+    /** Вызов каждого метода репозитория с аргументами, как их передают сервисы. */
+    private static final Map<String, Consumer<BookingRepository>> CALLS = new LinkedHashMap<>();
+
+    static {
+        CALLS.put("findWithItemById", r -> r.findWithItemById(BOOKING));
+        CALLS.put("findWithItemByIdIn", r -> r.findWithItemByIdIn(List.of(BOOKING, BOOKING + 1, BOOKING + 2)));
+        CALLS.put("findSummaryRows", r -> r.findSummaryRows(ITEMS_PAGE, NOW, APPROVED));
+        CALLS.put("existsOverlapping", r -> r.existsOverlapping(ITEM, NOW, NOW.plusHours(3), APPROVED, BOOKING));
+        CALLS.put("findOverlappingByItemIds",
+                r -> r.findOverlappingByItemIds(ITEMS_PAGE, APPROVED, NOW, NOW.plusDays(1)));
+        CALLS.put("findPeriodsByStatusAndEndAfter", r -> r.findPeriodsByStatusAndEndAfter(APPROVED, NOW));
+        CALLS.put("findPeriodsByItemIdsAndStatusAndEndAfter",
+                r -> r.findPeriodsByItemIdsAndStatusAndEndAfter(ITEMS_PAGE, APPROVED, NOW));
+        CALLS.put("findItemIdsByBookerIdAndStatusAndEndAfter",
+                r -> r.findItemIdsByBookerIdAndStatusAndEndAfter(USER, APPROVED, NOW));
+        CALLS.put("updateStatus", r -> r.updateStatus(BOOKING, WAITING, APPROVED));
+        CALLS.put("updateStatuses", r -> r.updateStatuses(List.of(BOOKING, BOOKING + 1), WAITING, APPROVED));
+        CALLS.put("existsByBooker_IdAndItem_IdAndStatusAndEndBefore",
+                r -> r.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(USER, ITEM, APPROVED, NOW));
+
+        CALLS.put("findByBooker_Id", r -> r.findByBooker_Id(USER, PAGE));
+        CALLS.put("findByBooker_IdAndStartBeforeAndEndAfter",
+                r -> r.findByBooker_IdAndStartBeforeAndEndAfter(USER, NOW, NOW, PAGE));
+        CALLS.put("findByBooker_IdAndEndBefore", r -> r.findByBooker_IdAndEndBefore(USER, NOW, PAGE));
+        CALLS.put("findByBooker_IdAndStartAfterAndEndAfter",
+                r -> r.findByBooker_IdAndStartAfterAndEndAfter(USER, NOW, NOW, PAGE));
+        CALLS.put("findByBooker_IdAndStatus", r -> r.findByBooker_IdAndStatus(USER, WAITING, PAGE));
+        CALLS.put("findByBookerAfterCursor", r -> r.findByBookerAfterCursor(USER, NOW, CURSOR_ID, LIMIT));
+        CALLS.put("findCurrentByBookerAfterCursor",
+                r -> r.findCurrentByBookerAfterCursor(USER, NOW, NOW, CURSOR_ID, LIMIT));
+        CALLS.put("findPastByBookerAfterCursor", r -> r.findPastByBookerAfterCursor(USER, NOW, NOW, CURSOR_ID, LIMIT));
+        CALLS.put("findFutureByBookerAfterCursor",
+                r -> r.findFutureByBookerAfterCursor(USER, NOW, NOW, CURSOR_ID, LIMIT));
+        CALLS.put("findByBookerAndStatusAfterCursor",
+                r -> r.findByBookerAndStatusAfterCursor(USER, WAITING, NOW, CURSOR_ID, LIMIT));
+
+        CALLS.put("findByOwnerId", r -> r.findByOwnerId(USER, PAGE));
+        CALLS.put("findByOwnerIdAndStartBeforeAndEndAfter",
+                r -> r.findByOwnerIdAndStartBeforeAndEndAfter(USER, NOW, NOW, PAGE));
+        CALLS.put("findByOwnerIdAndEndBefore", r -> r.findByOwnerIdAndEndBefore(USER, NOW, PAGE));
+        CALLS.put("findByOwnerIdAndStartAfterAndEndAfter",
+                r -> r.findByOwnerIdAndStartAfterAndEndAfter(USER, NOW, NOW, PAGE));
+        CALLS.put("findByOwnerIdAndStatus", r -> r.findByOwnerIdAndStatus(USER, WAITING, PAGE));
+        CALLS.put("findByOwnerAfterCursor", r -> r.findByOwnerAfterCursor(USER, NOW, CURSOR_ID, LIMIT));
+        CALLS.put("findCurrentByOwnerAfterCursor",
+                r -> r.findCurrentByOwnerAfterCursor(USER, NOW, NOW, CURSOR_ID, LIMIT));
+        CALLS.put("findPastByOwnerAfterCursor", r -> r.findPastByOwnerAfterCursor(USER, NOW, NOW, CURSOR_ID, LIMIT));
+        CALLS.put("findFutureByOwnerAfterCursor",
+                r -> r.findFutureByOwnerAfterCursor(USER, NOW, NOW, CURSOR_ID, LIMIT));
+        CALLS.put("findByOwnerAndStatusAfterCursor",
+                r -> r.findByOwnerAndStatusAfterCursor(USER, WAITING, NOW, CURSOR_ID, LIMIT));
+    }
+
+    /** Перехват SQL в этом контексте: DataSource оборачивается {@link SqlCapture}. */
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        static BeanPostProcessor sqlCapturePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof SqlCapture)
+                            ? new SqlCapture(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void setUp() throws IOException {
+        // в тестовом профиле схему строит Hibernate, индексы берутся из боевого schema.sql
+        for (String ddl : indexStatements()) {
+            jdbcTemplate.execute(ddl);
+        }
+
+        List<Object[]> users = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            users.add(new Object[]{BASE_ID + u, "Plan" + u, "plan-" + u + "@test.io"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{BASE_ID + i, "Вещь" + i, "Описание", true, BASE_ID + i % USERS});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO items (id, name, description, is_available, owner_id, version) VALUES (?, ?, ?, ?, ?, 0)",
+                items);
+
+        String[] statuses = {"APPROVED", "APPROVED", "APPROVED", "WAITING", "REJECTED"};
+        List<Object[]> bookings = new ArrayList<>();
+        for (int b = 0; b < BOOKINGS; b++) {
+            LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0).plusHours(b);
+            bookings.add(new Object[]{BASE_ID + b, start, start.plusHours(3),
+                    BASE_ID + b % ITEMS, BASE_ID + (b * 7) % USERS, statuses[b % statuses.length],
+                    BASE_ID + b % ITEMS % USERS});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, owner_id)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?)", bookings);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE id >= ?", BASE_ID);
+        jdbcTemplate.update("DELETE FROM items WHERE id >= ?", BASE_ID);
+        jdbcTemplate.update("DELETE FROM users WHERE id >= ?", BASE_ID);
+    }
+
+    @Test
+    void everyRepositoryMethod_shouldHaveCheckedQuery() {
+        Set<String> methods = Arrays.stream(BookingRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Arrays.stream(BookingBatchRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .forEach(methods::add);
+
+        assertThat(CALLS.keySet()).containsAll(methods);
+    }
+
+    @Test
+    void repositoryQueries_shouldNotScanBookings() {
+        Map<String, String> scans = new LinkedHashMap<>();
+        Set<String> silent = new TreeSet<>();
+        CALLS.forEach((method, call) -> {
+            List<SqlCapture.Captured> statements = capture(call).stream()
+                    .filter(c -> c.sql().toLowerCase(Locale.ROOT).contains("bookings"))
+                    .toList();
+            if (statements.isEmpty()) {
+                silent.add(method);
+            }
+            for (SqlCapture.Captured statement : statements) {
+                String plan = explain(statement);
+                if (BOOKINGS_SCAN.matcher(plan).find()) {
+                    scans.put(method, plan);
+                }
+            }
+        });
+
+        assertThat(silent).as("методы без SQL по bookings").isEmpty();
+        assertThat(scans).as("полный проход по bookings").isEmpty();
+    }
+
+    /** SQL, выполненный вызовом; изменения откатываются. */
+    private List<SqlCapture.Captured> capture(Consumer<BookingRepository> call) {
+        return transactionTemplate.execute(tx -> {
+            tx.setRollbackOnly();
+            SqlCapture.start();
+            try {
+                call.accept(bookingRepository);
+            } catch (RuntimeException e) {
+                SqlCapture.stop();
+                throw e;
+            }
+            return SqlCapture.stop();
+        });
+    }
+
+    private String explain(SqlCapture.Captured statement) {
+        return jdbcTemplate.query("EXPLAIN " + statement.sql(), ps -> {
+            for (Map.Entry<Integer, Object> param : statement.params().entrySet()) {
+                ps.setObject(param.getKey(), param.getValue());
+            }
+        }, rs -> rs.next() ? rs.getString(1) : "");
+    }
+
+    /** CREATE/DROP INDEX из schema.sql в порядке объявления. */
+    private static List<String> indexStatements() throws IOException {
+        String script;
+        try (InputStream in = new ClassPathResource("schema.sql").getInputStream()) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String withoutComments = script.lines()
+                .filter(line -> !line.strip().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        return Arrays.stream(withoutComments.split(";"))
+                .map(String::strip)
+                .filter(sql -> sql.startsWith("CREATE INDEX") || sql.startsWith("DROP INDEX"))
+                .toList();
+    }
+
+    /**
+     * Обёртка пула для теста: пока в потоке идёт запись (start/stop), запоминает каждое выполненное
+     * PreparedStatement — SQL и параметры (для JDBC-батча — параметры первой строки).
+     */
+    static final class SqlCapture extends DelegatingDataSource {
+
+        record Captured(String sql, Map<Integer, Object> params) { }
+
+        private static final ThreadLocal<List<Captured>> RECORDED = new ThreadLocal<>();
+
+        SqlCapture(DataSource target) {
+            super(target);
+        }
+
+        static void start() {
+            RECORDED.set(new ArrayList<>());
+        }
+
+        static List<Captured> stop() {
+            List<Captured> recorded = RECORDED.get();
+            RECORDED.remove();
+            return recorded;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection target = super.getConnection();
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                        ? recording(statement, (String) args[0])
+                        : result;
+            });
+        }
+
+        private static PreparedStatement recording(PreparedStatement target, String sql) {
+            Map<Integer, Object> params = new TreeMap<>();
+            Map<Integer, Object> firstRow = new TreeMap<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    params.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    params.clear();
+                } else if (name.equals("addBatch") && firstRow.isEmpty()) {
+                    firstRow.putAll(params);
+                } else if (name.startsWith("execute") && RECORDED.get() != null) {
+                    RECORDED.get().add(new Captured(sql, new TreeMap<>(firstRow.isEmpty() ? params : firstRow)));
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(SqlCapture.class.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
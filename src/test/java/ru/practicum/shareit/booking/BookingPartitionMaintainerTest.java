@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * DDL обслуживания секций bookings без PostgreSQL: JdbcTemplate подменён моком.
+ */
+class BookingPartitionMaintainerTest {
+
+    private static final YearMonth NOW = YearMonth.of(2030, 5);
+    private static final Clock CLOCK = Clock.fixed(
+            NOW.atDay(10).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    private JdbcTemplate jdbcTemplate;
+    private BookingPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+        maintainer = new BookingPartitionMaintainer(jdbcTemplate, transactionTemplate, CLOCK, 1, 24);
+    }
+
+    @Test
+    void maintain_shouldCreateMissingPartitionsAndArchiveOldOnes() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT to_regclass"), eq(Boolean.class), eq("bookings_p203005")))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), eq("bookings_p202801")))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("bookings_p202801", "bookings_p202805", "bookings_p203005"));
+
+        maintainer.maintain(NOW);
+
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE IF NOT EXISTS bookings_p203005"));
+        verify(jdbcTemplate).execute(
+                "CREATE TABLE IF NOT EXISTS bookings_p203006 (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        verify(jdbcTemplate).execute(
+                "ALTER TABLE bookings ATTACH PARTITION bookings_p203006 FOR VALUES FROM ('2030-06-01') TO ('2030-07-01')");
+
+        // граница хранения — 2028-05: раньше неё только январь 2028
+        verify(jdbcTemplate).execute("SET LOCAL lock_timeout = '5s'");
+        verify(jdbcTemplate).execute("ALTER TABLE bookings DETACH PARTITION bookings_p202801");
+        verify(jdbcTemplate).execute("ALTER TABLE bookings_p202801 SET SCHEMA bookings_archive");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE bookings DETACH PARTITION bookings_p202805");
+    }
+
+    @Test
+    void maintain_pastRowsInDefault_shouldCreateTheirPartitionUnderLock() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT"), eq(String.class), any()))
+                .thenReturn(List.of("202904"));
+
+        maintainer.maintain(NOW);
+
+        InOrder inOrder = Mockito.inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("SELECT pg_advisory_xact_lock(" + BookingPartitionMaintainer.LOCK_KEY + ")");
+        inOrder.verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS bookings_p202904 "));
+        verify(jdbcTemplate).execute(
+                "ALTER TABLE bookings ATTACH PARTITION bookings_p202904 FOR VALUES FROM ('2029-04-01') TO ('2029-05-01')");
+    }
+
+    @Test
+    void maintain_partitionCreatedByAnotherNode_shouldSkipItAndContinue() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(true);
+        // до блокировки секции нет, под блокировкой она уже создана другим узлом
+        when(jdbcTemplate.queryForObject(startsWith("SELECT to_regclass"), eq(Boolean.class), eq("bookings_p203005")))
+                .thenReturn(false, true);
+
+        maintainer.maintain(NOW);
+
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE IF NOT EXISTS bookings_p203005"));
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS bookings_p203006"));
+    }
+
+    @Test
+    void maintain_partitionFailure_shouldBeLoggedAndOthersCreated() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(true);
+        doThrow(new DataAccessResourceFailureException("lock timeout"))
+                .when(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS bookings_p203005"));
+
+        assertThatCode(() -> maintainer.maintain(NOW)).doesNotThrowAnyException();
+
+        // следующая секция создаётся несмотря на ошибку предыдущей
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS bookings_p203006"));
+    }
+
+    @Test
+    void maintain_unexpectedError_shouldNotAbortStartup() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        assertThatCode(() -> maintainer.maintain()).doesNotThrowAnyException();
+    }
+
+    @Test
+    void maintain_plainTable_shouldMigrateUnderLockBeforeCreatingPartitions() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(false);
+
+        maintainer.maintain(NOW);
+
+        InOrder inOrder = Mockito.inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("SELECT pg_advisory_xact_lock(" + BookingPartitionMaintainer.LOCK_KEY + ")");
+        inOrder.verify(jdbcTemplate).execute(contains("ALTER TABLE bookings RENAME TO bookings_unpartitioned"));
+        inOrder.verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS bookings_p203005"));
+    }
+
+    @Test
+    void maintain_withoutRetention_shouldNotArchive() {
+        maintainer = new BookingPartitionMaintainer(jdbcTemplate,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), CLOCK, 1, 0);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("bookings_p201001"));
+
+        maintainer.maintain();
+
+        // текущий месяц берётся из Clock, а не из системного времени
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS bookings_p203005"));
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION"));
+    }
+}
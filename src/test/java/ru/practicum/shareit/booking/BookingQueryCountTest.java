@@ -0,0 +1,196 @@
+package ru.practicum.shareit.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDetailsDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+/**
+ * Число SQL-выражений на сценарий (Hibernate statistics).
+ * Рост счётчика — признак N+1 или ленивой догрузки.
+ */
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class BookingQueryCountTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        owner = userRepository.save(User.builder().name("Owner").email("qc-owner@test.io").build());
+        booker = userRepository.save(User.builder().name("Booker").email("qc-booker@test.io").build());
+        item = itemRepository.save(Item.builder()
+                .name("Рубанок")
+                .description("Электрический")
+                .available(true)
+                .owner(owner)
+                .build());
+        booking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(Booking.BookingStatus.WAITING)
+                .build());
+
+        // всё дальнейшее должно читаться из БД, а не из контекста персистентности
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void get_shouldLoadBookingWithItemInOneStatement() {
+        BookingDto dto = bookingService.get(booker.getId(), booking.getId());
+
+        assertThat(dto.itemName()).isEqualTo("Рубанок");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void approve_shouldCheckOverlapAndUpdateByCas() {
+        bookingService.approve(owner.getId(), booking.getId(), true);
+        entityManager.flush();
+
+        // бронирование + проверка пересечений + CAS статуса + CAS версии вещи
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void reject_shouldSelectOnceAndUpdateOnce() {
+        bookingService.approve(owner.getId(), booking.getId(), false);
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void listForUser_shouldNotLoadItemsPerRow() {
+        BookingListDto list = bookingService.listForUser(booker.getId(), BookingState.ALL, 0, 10);
+
+        assertThat(list.bookings()).extracting(BookingDto::itemName).containsExactly("Рубанок");
+        // только страница бронирований: пользователь не загружается
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listForOwner_shouldNotLoadItemsPerRow() {
+        BookingListDto list = bookingService.listForOwner(owner.getId(), BookingState.ALL, 0, 10);
+
+        assertThat(list.bookings()).extracting(BookingDto::itemName).containsExactly("Рубанок");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listForUser_emptyPage_shouldCheckUserExistence() {
+        BookingListDto list = bookingService.listForUser(owner.getId(), BookingState.ALL, 0, 10);
+
+        assertThat(list.bookings()).isEmpty();
+        // страница + existsById
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThrows(NotFoundException.class,
+                () -> bookingService.listForUser(Long.MAX_VALUE, BookingState.ALL, 0, 10));
+    }
+
+    @Test
+    void getByOwner_shouldNotQueryBookingsPerItem() {
+        List<ItemWithBookingsDto> items = itemService.getByOwner(owner.getId(), 0, 10);
+
+        assertThat(items).hasSize(1);
+        // вещи + комментарии + сводка бронирований (первое чтение)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        statistics.clear();
+        itemService.getByOwner(owner.getId(), 0, 10);
+        // сводка уже в памяти: запросов к bookings нет
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void getById_owner_shouldTakeBookingsFromSummary() {
+        bookingService.approve(owner.getId(), booking.getId(), true);
+        itemService.getById(owner.getId(), item.getId());
+        statistics.clear();
+
+        ItemDetailsDto details = itemService.getById(owner.getId(), item.getId());
+
+        assertThat(details.nextBooking()).isEqualTo(new BookingShortDto(booking.getId(), booker.getId()));
+        assertThat(details.lastBooking()).isNull();
+        // бронирования — из BookingSummary: только вещь с комментариями и авторами
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        ItemDetailsDto forBooker = itemService.getById(booker.getId(), item.getId());
+        assertThat(forBooker.nextBooking()).isNull();
+    }
+
+    @Test
+    void getById_owner_coldPath_shouldTakeAtMostTwoStatements() {
+        bookingService.approve(owner.getId(), booking.getId(), true);
+        entityManager.persist(Comment.builder()
+                .text("Хороший")
+                .item(entityManager.getReference(Item.class, item.getId()))
+                .author(entityManager.getReference(User.class, booker.getId()))
+                .created(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        ItemDetailsDto details = itemService.getById(owner.getId(), item.getId());
+
+        assertThat(details.nextBooking()).isEqualTo(new BookingShortDto(booking.getId(), booker.getId()));
+        assertThat(details.comments()).extracting(CommentDto::authorName).containsExactly("Booker");
+        // вещь с владельцем и комментарии с авторами — один запрос, промах BookingSummary — второй
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -4,15 +4,19 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
@@ -81,8 +85,124 @@ class BookingServiceImplTest {
         BookingDto approved = bookingService.approve(owner.getId(), created.id(), true);
         assertThat(approved.status()).isEqualTo(Booking.BookingStatus.APPROVED);
 
-        List<BookingDto> forUser = bookingService.listForUser(booker.getId(), BookingState.ALL, 0, 10);
-        assertThat(forUser).extracting(BookingDto::id).contains(approved.id());
+        BookingListDto forUser = bookingService.listForUser(booker.getId(), BookingState.ALL, 0, 10);
+        assertThat(forUser.bookings()).extracting(BookingDto::id).contains(approved.id());
+        assertThat(forUser.hasNext()).isFalse();
+    }
+
+    @Test
+    void listForUser_fromNotMultipleOfSize_shouldStartAtExactOffset() {
+        User owner = userRepository.save(User.builder().name("O4").email("o4@test.io").build());
+        User booker = userRepository.save(User.builder().name("U4").email("u4@test.io").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Лобзик")
+                .description("Электрический")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(bookingService.create(booker.getId(),
+                    new BookingCreateDto(item.getId(), base.plusDays(i), base.plusDays(i).plusHours(1))).id());
+        }
+
+        // порядок выдачи — по start убыванию: ids[4], ids[3], ids[2], ...
+        BookingListDto page = bookingService.listForUser(booker.getId(), BookingState.ALL, 1, 2);
+
+        assertThat(page.bookings()).extracting(BookingDto::id).containsExactly(ids.get(3), ids.get(2));
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    void scrollForUser_shouldWalkAllBookingsByCursor() {
+        User owner = userRepository.save(User.builder().name("O3").email("o3@test.io").build());
+        User booker = userRepository.save(User.builder().name("U3").email("u3@test.io").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Пила")
+                .description("Циркулярная")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            bookingService.create(booker.getId(),
+                    new BookingCreateDto(item.getId(), base.plusDays(i), base.plusDays(i).plusHours(1)));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        BookingListDto page = bookingService.scrollForUser(booker.getId(), BookingState.ALL, "", 2);
+        page.bookings().forEach(b -> seen.add(b.id()));
+        while (page.nextCursor() != null) {
+            page = bookingService.scrollForUser(booker.getId(), BookingState.ALL, page.nextCursor(), 2);
+            page.bookings().forEach(b -> seen.add(b.id()));
+        }
+
+        List<Long> expected = bookingService.listForUser(booker.getId(), BookingState.ALL, 0, 10)
+                .bookings().stream().map(BookingDto::id).toList();
+        assertThat(seen).hasSize(5).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void create_shouldRejectPeriodOverlappingApprovedBooking() {
+        User owner = userRepository.save(User.builder().name("O4").email("o4@test.io").build());
+        User first = userRepository.save(User.builder().name("U4").email("u4@test.io").build());
+        User second = userRepository.save(User.builder().name("U5").email("u5@test.io").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Лобзик")
+                .description("Электрический")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booked = bookingService.create(first.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(2)));
+        bookingService.approve(owner.getId(), booked.id(), true);
+
+        assertThrows(ConflictException.class, () -> bookingService.create(second.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(1), start.plusDays(3))));
+        // смежный интервал не пересекается
+        BookingDto adjacent = bookingService.create(second.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(2), start.plusDays(3)));
+        assertThat(adjacent.status()).isEqualTo(Booking.BookingStatus.WAITING);
+    }
+
+    @Test
+    void approveAll_shouldApplyBatchAndReportEachBooking() {
+        User owner = userRepository.save(User.builder().name("O6").email("o6@test.io").build());
+        User stranger = userRepository.save(User.builder().name("O7").email("o7@test.io").build());
+        User booker = userRepository.save(User.builder().name("U6").email("u6@test.io").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Генератор")
+                .description("Бензиновый")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto first = bookingService.create(booker.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(1)));
+        BookingDto overlapping = bookingService.create(booker.getId(),
+                new BookingCreateDto(item.getId(), start.plusHours(12), start.plusDays(2)));
+        BookingDto later = bookingService.create(booker.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(3), start.plusDays(4)));
+
+        List<BookingApprovalResultDto> results = bookingService.approveAll(owner.getId(),
+                List.of(later.id(), first.id(), overlapping.id(), Long.MAX_VALUE), true);
+
+        assertThat(results).extracting(BookingApprovalResultDto::bookingId)
+                .containsExactly(later.id(), first.id(), overlapping.id(), Long.MAX_VALUE);
+        assertThat(results).extracting(BookingApprovalResultDto::status)
+                .containsExactly(Booking.BookingStatus.APPROVED, Booking.BookingStatus.APPROVED, null, null);
+        assertThat(bookingService.get(booker.getId(), overlapping.id()).status())
+                .isEqualTo(Booking.BookingStatus.WAITING);
+
+        assertThat(bookingService.approveAll(stranger.getId(), List.of(overlapping.id()), false))
+                .extracting(BookingApprovalResultDto::error)
+                .containsExactly("Only item owner can approve/reject booking");
     }
 
     @Test
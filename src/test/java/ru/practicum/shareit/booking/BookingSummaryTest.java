@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+
+/**
+ * Сводка последнего/ближайшего бронирования без Spring: выбор из строк запроса и события.
+ */
+class BookingSummaryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    private BookingRepository repository;
+    private MutableClock clock;
+    private BookingSummary summary;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(BookingRepository.class);
+        clock = new MutableClock(NOW);
+        summary = new BookingSummary(repository, clock);
+    }
+
+    @Test
+    void get_shouldPickLastByEndAndNextApprovedByStart() {
+        when(repository.findSummaryRows(anyCollection(), any(), eq(BookingStatus.APPROVED))).thenReturn(List.<Object[]>of(
+                row(1L, 10L, 100L, NOW.minusDays(5), NOW.minusDays(4), BookingStatus.APPROVED),
+                row(1L, 11L, 101L, NOW.minusDays(3), NOW.minusDays(1), BookingStatus.REJECTED),
+                row(1L, 12L, 102L, NOW.plusDays(1), NOW.plusDays(2), BookingStatus.WAITING),
+                row(1L, 13L, 103L, NOW.plusDays(3), NOW.plusDays(4), BookingStatus.APPROVED)));
+
+        Map<Long, BookingSummary.LastNext> result = summary.get(List.of(1L, 2L));
+
+        assertThat(result.get(1L).last()).isEqualTo(new BookingShortDto(11L, 101L));
+        assertThat(result.get(1L).next()).isEqualTo(new BookingShortDto(13L, 103L));
+        assertThat(result.get(2L).last()).isNull();
+        assertThat(result.get(2L).next()).isNull();
+    }
+
+    @Test
+    void get_validEntries_shouldNotQueryAgain() {
+        when(repository.findSummaryRows(anyCollection(), any(), any())).thenReturn(List.<Object[]>of(
+                row(1L, 13L, 103L, NOW.plusDays(3), NOW.plusDays(4), BookingStatus.APPROVED)));
+
+        summary.get(List.of(1L));
+        summary.get(List.of(1L));
+
+        verify(repository, times(1)).findSummaryRows(anyCollection(), any(), any());
+    }
+
+    @Test
+    void onApproved_earlierBooking_shouldBecomeNextWithoutQuery() {
+        when(repository.findSummaryRows(anyCollection(), any(), any())).thenReturn(List.<Object[]>of(
+                row(1L, 13L, 103L, NOW.plusDays(3), NOW.plusDays(4), BookingStatus.APPROVED)));
+        summary.get(List.of(1L));
+
+        summary.onApproved(1L, 20L, 200L, NOW.plusDays(2));
+        summary.onApproved(1L, 21L, 201L, NOW.plusDays(5));
+
+        assertThat(summary.get(List.of(1L)).get(1L).next()).isEqualTo(new BookingShortDto(20L, 200L));
+        verify(repository, times(1)).findSummaryRows(anyCollection(), any(), any());
+    }
+
+    @Test
+    void onCreated_startingSoon_shouldExpireEntryAtStart() {
+        when(repository.findSummaryRows(anyCollection(), any(), any())).thenReturn(List.<Object[]>of());
+        summary.get(List.of(1L));
+
+        summary.onCreated(1L, NOW.plusMinutes(1));
+        summary.get(List.of(1L));
+        clock.set(NOW.plusMinutes(1));
+        summary.get(List.of(1L));
+
+        verify(repository, times(2)).findSummaryRows(anyCollection(), any(), any());
+    }
+
+    @Test
+    void sweep_shouldRefreshOnlyExpiredEntries() {
+        when(repository.findSummaryRows(anyCollection(), any(), any())).thenReturn(List.<Object[]>of());
+        summary.get(List.of(1L, 2L));
+        summary.onCreated(2L, NOW.plusMinutes(1));
+        clock.set(NOW.plusMinutes(1));
+
+        summary.sweep();
+        summary.get(List.of(1L, 2L));
+
+        // запись 2 перечитана sweep, чтение после него обходится без запроса
+        verify(repository).findSummaryRows(eq(List.of(2L)), any(), any());
+        verify(repository, times(2)).findSummaryRows(anyCollection(), any(), any());
+    }
+
+    @Test
+    void sweep_afterMaxAge_shouldKeepRecentlyReadItemsWarm() {
+        when(repository.findSummaryRows(anyCollection(), any(), any())).thenReturn(List.<Object[]>of());
+        summary.get(List.of(1L, 2L));
+
+        clock.set(NOW.plus(BookingSummary.MAX_AGE));
+        summary.sweep();
+        summary.get(List.of(1L, 2L));
+
+        verify(repository, times(2)).findSummaryRows(eq(List.of(1L, 2L)), any(), any());
+        verify(repository, times(2)).findSummaryRows(anyCollection(), any(), any());
+    }
+
+    @Test
+    void sweep_idleItems_shouldBeDroppedNotRefreshed() {
+        when(repository.findSummaryRows(anyCollection(), any(), any())).thenReturn(List.<Object[]>of());
+        summary.get(List.of(1L, 2L));
+        // событие по вещи, которую не читали: маркер без перечитывания
+        summary.onApproved(3L, 30L, 300L, NOW.plusDays(1));
+
+        clock.set(NOW.plus(BookingSummary.IDLE_AFTER).plusMinutes(1));
+        summary.sweep();
+
+        verify(repository, times(1)).findSummaryRows(anyCollection(), any(), any());
+        summary.get(List.of(1L, 2L, 3L));
+        verify(repository).findSummaryRows(eq(List.of(1L, 2L, 3L)), any(), any());
+    }
+
+    @Test
+    void forget_shouldDropEntriesOfDeletedItems() {
+        when(repository.findSummaryRows(anyCollection(), any(), any())).thenReturn(List.<Object[]>of());
+        summary.get(List.of(1L, 2L));
+
+        summary.forget(List.of(2L));
+        summary.get(List.of(1L, 2L));
+
+        verify(repository).findSummaryRows(eq(List.of(2L)), any(), any());
+    }
+
+    /** Часы, которые тест переводит сам. */
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(LocalDateTime now) {
+            set(now);
+        }
+
+        void set(LocalDateTime now) {
+            instant = now.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private static Object[] row(Long itemId, Long id, Long bookerId, LocalDateTime start, LocalDateTime end,
+                                BookingStatus status) {
+        return new Object[]{itemId, id, bookerId, start, end, status};
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+/**
+ * Удаление пользователя: затронутые вещи собираются до каскада, календарь и сводка правятся только после коммита.
+ */
+class BookingUserDeletedListenerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    private final BookingRepository repository = Mockito.mock(BookingRepository.class);
+    private final BookingCalendar calendar = Mockito.mock(BookingCalendar.class);
+    private final BookingSummary summary = Mockito.mock(BookingSummary.class);
+    private final ApplicationEventPublisher publisher = Mockito.mock(ApplicationEventPublisher.class);
+    private final BookingUserDeletedListener listener = new BookingUserDeletedListener(repository, calendar, summary,
+            publisher, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+    @Test
+    void onUserDeleted_shouldCollectBookedItemsWithoutTouchingMemory() {
+        when(repository.findItemIdsByBookerIdAndStatusAndEndAfter(7L, BookingStatus.APPROVED, NOW))
+                .thenReturn(List.of(30L));
+
+        listener.onUserDeleted(new UserDeletedEvent(7L, List.of(10L, 20L)));
+
+        verify(publisher).publishEvent(new BookingUserDeletedListener.BookingsRemoved(List.of(10L, 20L), List.of(30L)));
+        verifyNoInteractions(calendar, summary);
+    }
+
+    @Test
+    void onBookingsRemoved_shouldForgetOwnItemsAndReloadBookedOnes() {
+        listener.onBookingsRemoved(new BookingUserDeletedListener.BookingsRemoved(List.of(10L), List.of(30L)));
+
+        verify(calendar).forgetItems(List.of(10L));
+        verify(calendar).reload(List.of(30L));
+        verify(summary).forget(List.of(10L));
+        verify(summary).forget(List.of(30L));
+        verify(repository, Mockito.never()).findItemIdsByBookerIdAndStatusAndEndAfter(any(), any(), any());
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -20,14 +21,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDetailsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Item;
 
 /**
  * Web-slice тест ItemController:
@@ -104,6 +110,19 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.name", is("Дрель PRO")));
     }
 
+    @Test
+    @DisplayName("PATCH /items/{id} — параллельное изменение вещи даёт 409")
+    void update_concurrentModification_shouldReturnConflict() throws Exception {
+        Mockito.when(itemService.update(anyLong(), anyLong(), any(ItemDto.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 5L));
+
+        mvc.perform(patch("/items/{id}", 5L)
+                        .header(USER_HEADER, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ItemDto.builder().name("Дрель PRO").build())))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @DisplayName("GET /items/{id} — возвращает детали вещи")
     void getById_shouldReturnDetailsDto() throws Exception {
@@ -112,7 +131,7 @@ class ItemControllerTest {
         // Комментарий: (id, text, authorName, created)
         CommentDto c1 = new CommentDto(1L, "Отличный!", "Иван", (LocalDateTime) null);
 
-        // ItemDetailsDto: (id, name, description, available, ownerId, requestId, comments)
+        // ItemDetailsDto: (id, name, description, available, ownerId, requestId, lastBooking, nextBooking, comments)
         ItemDetailsDto details = new ItemDetailsDto(
                 itemId,
                 "Лобзик",
@@ -120,6 +139,8 @@ class ItemControllerTest {
                 Boolean.TRUE,
                 2L,                // ownerId
                 null,              // requestId (может быть null)
+                new BookingShortDto(5L, 3L),   // lastBooking
+                null,              // nextBooking
                 List.of(c1)        // comments
         );
 
@@ -130,7 +151,10 @@ class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is((int) itemId)))
                 .andExpect(jsonPath("$.name", is("Лобзик")))
-                .andExpect(jsonPath("$.comments", hasSize(1)));
+                .andExpect(jsonPath("$.comments", hasSize(1)))
+                .andExpect(jsonPath("$.lastBooking.id", is(5)))
+                .andExpect(jsonPath("$.lastBooking.bookerId", is(3)))
+                .andExpect(jsonPath("$.nextBooking").doesNotExist());
     }
 
     @Test
@@ -154,13 +178,85 @@ class ItemControllerTest {
                 List.<CommentDto>of()          // важно: явно типизируем
         );
 
-        Mockito.when(itemService.getByOwner(anyLong())).thenReturn(List.of(it));
+        Mockito.when(itemService.getByOwner(anyLong(), anyInt(), anyInt())).thenReturn(List.of(it));
 
         mvc.perform(get("/items")
-                        .header(USER_HEADER, 10L))
+                        .header(USER_HEADER, 10L)
+                        .param("from", "20")
+                        .param("size", "5"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(5)));
+
+        Mockito.verify(itemService).getByOwner(10L, 20, 5);
+    }
+
+    @Test
+    @DisplayName("GET /items/search — передаёт from/size в сервис")
+    void search_shouldPassPaging() throws Exception {
+        ItemDto found = ItemDto.builder()
+                .id(3L)
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .build();
+
+        Mockito.when(itemService.search("дрель", 20, 5)).thenReturn(List.of(found));
+
+        mvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("from", "20")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(3)));
+    }
+
+    @Test
+    @DisplayName("GET /items/search — отклоняет size <= 0")
+    void search_shouldRejectNonPositiveSize() throws Exception {
+        mvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /items/import — импортирует массив вещей")
+    void importItems_shouldReturnImportResult() throws Exception {
+        List<ItemDto> payload = List.of(
+                ItemDto.builder().name("Дрель").description("Ударная").available(true).build(),
+                ItemDto.builder().name("Пила").description("Ручная").available(true).build());
+
+        Mockito.when(itemService.importItems(anyLong(), Mockito.anyList()))
+                .thenReturn(new ItemImportResultDto(2, 5, 400));
+
+        mvc.perform(post("/items/import")
+                        .header(USER_HEADER, 7L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.rowsPerSecond", is(400)));
+    }
+
+    @Test
+    @DisplayName("GET /items/{id}/availability — занятые и свободные промежутки")
+    void getAvailability_shouldReturnBusyAndFreePeriods() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 10, 0, 0);
+        BookingPeriodDto busy = new BookingPeriodDto(from.plusDays(2), from.plusDays(4));
+        ItemAvailabilityDto response = new ItemAvailabilityDto(5L, from, to, List.of(busy),
+                List.of(new BookingPeriodDto(from, busy.start()), new BookingPeriodDto(busy.end(), to)));
+
+        Mockito.when(itemService.getAvailability(5L, from, to)).thenReturn(response);
+
+        mvc.perform(get("/items/{id}/availability", 5L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-10T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy", hasSize(1)))
+                .andExpect(jsonPath("$.free", hasSize(2)));
     }
 
     @Test
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.item;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+/**
+ * Массовый импорт вещей: пакетная вставка и проверка всех записей до вставки; граница страницы поиска;
+ * последнее/ближайшее бронирование в списке вещей владельца.
+ */
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class ItemServiceImplTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder().name("Merchant").email("merchant@test.io").build());
+        entityManager.flush();
+        statistics.clear();
+    }
+
+    @Test
+    void importItems_shouldInsertInJdbcBatches() {
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(ItemDto.builder().name("Товар " + i).description("Описание " + i).available(true).build());
+        }
+
+        ItemImportResultDto result = itemService.importItems(owner.getId(), items);
+
+        assertThat(result.imported()).isEqualTo(120);
+        assertThat(itemRepository.findByOwner_Id(owner.getId(), Pageable.unpaged()).getTotalElements())
+                .isEqualTo(120);
+        // 120 строк при batch_size = 50 — три батча, а не 120 INSERT
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    void importItems_shouldRejectWholeBatchOnInvalidItem() {
+        List<ItemDto> items = List.of(
+                ItemDto.builder().name("Годный").description("Есть всё").available(true).build(),
+                ItemDto.builder().name("Без описания").available(true).build());
+
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> itemService.importItems(owner.getId(), items));
+
+        assertThat(ex.getMessage()).startsWith("items[1]");
+        assertThat(itemRepository.findByOwner_Id(owner.getId(), Pageable.unpaged()).getTotalElements())
+                .isZero();
+    }
+
+    @Test
+    void search_sizeAboveLimit_shouldBeRejected() {
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> itemService.search("дрель", 150, ItemServiceImpl.MAX_SEARCH_PAGE_SIZE + 50));
+
+        assertThat(ex.getMessage()).contains(String.valueOf(ItemServiceImpl.MAX_SEARCH_PAGE_SIZE));
+    }
+
+    @Test
+    void getByOwner_shouldPickLastAndNextPerItemWithTiesById() {
+        User booker = userRepository.save(User.builder().name("Booker").email("summary-booker@test.io").build());
+        Item drill = itemRepository.save(item("Дрель"));
+        Item saw = itemRepository.save(item("Пила"));
+        Item empty = itemRepository.save(item("Молоток"));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        // последнее — максимальный end среди начавшихся в любом статусе, при равенстве больший id
+        booking(drill, booker, now.minusDays(5), now.minusDays(2), BookingStatus.APPROVED);
+        Booking drillLast = booking(drill, booker, now.minusDays(4), now.minusDays(2), BookingStatus.REJECTED);
+        // ближайшее — минимальный start среди будущих APPROVED, при равенстве меньший id
+        booking(drill, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        Booking drillNext = booking(drill, booker, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+        booking(drill, booker, now.plusDays(2), now.plusDays(4), BookingStatus.APPROVED);
+        Booking sawLast = booking(saw, booker, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+        entityManager.flush();
+
+        Map<Long, ItemWithBookingsDto> byId = itemService.getByOwner(owner.getId(), 0, 10).stream()
+                .collect(Collectors.toMap(ItemWithBookingsDto::id, Function.identity()));
+
+        assertThat(byId.get(drill.getId()).lastBooking()).isEqualTo(new BookingShortDto(drillLast.getId(), booker.getId()));
+        assertThat(byId.get(drill.getId()).nextBooking()).isEqualTo(new BookingShortDto(drillNext.getId(), booker.getId()));
+        assertThat(byId.get(saw.getId()).lastBooking()).isEqualTo(new BookingShortDto(sawLast.getId(), booker.getId()));
+        assertThat(byId.get(saw.getId()).nextBooking()).isNull();
+        assertThat(byId.get(empty.getId()).lastBooking()).isNull();
+        assertThat(byId.get(empty.getId()).nextBooking()).isNull();
+    }
+
+    private Item item(String name) {
+        return Item.builder().name(name).description(name).available(true).owner(owner).build();
+    }
+
+    private Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start).end(end).item(item).booker(booker).status(status).build());
+    }
+}
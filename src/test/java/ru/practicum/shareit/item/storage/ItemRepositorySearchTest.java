@@ -4,8 +4,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -14,6 +16,7 @@ import ru.practicum.shareit.user.storage.UserRepository;
 /**
  * Проверка поиска вещей: по имени/описанию, только доступные.
  * Профиль "test" включает H2 с ddl-auto=create.
+ * Индексный поиск InMemoryItemRepository сверяется с JPA-запросом на одних и тех же данных.
  */
 @DataJpaTest
 @ActiveProfiles("test")
@@ -64,4 +67,69 @@ class ItemRepositorySearchTest {
                 .doesNotContain(matchUnavailable)
                 .doesNotContain(notMatch);
     }
+
+    @Test
+    void search_shouldOrderByRelevance() {
+        User owner = userRepository.save(
+                User.builder().name("Owner2").email("owner2@test.io").build()
+        );
+
+        Item inDescription = itemRepository.save(item(owner, "Шуруповёрт", "Удобнее, чем дрель"));
+        Item inName = itemRepository.save(item(owner, "Мини-дрель", "Для моделизма"));
+        Item prefix = itemRepository.save(item(owner, "Дрель-миксер", "Для строительных смесей"));
+        Item exact = itemRepository.save(item(owner, "ДРЕЛЬ", "Обычная"));
+
+        List<Item> result = itemRepository.search("дрель", PageRequest.of(0, 10)).getContent();
+
+        assertThat(result).containsExactly(exact, prefix, inName, inDescription);
+    }
+
+    @Test
+    void inMemorySearch_shouldMatchJpaSearch() {
+        User owner = userRepository.save(
+                User.builder().name("Owner3").email("owner3@test.io").build()
+        );
+        InMemoryItemRepository inMemory = Mockito.mock(InMemoryItemRepository.class,
+                Mockito.withSettings().useConstructor().defaultAnswer(Mockito.CALLS_REAL_METHODS));
+
+        List<Item> dataset = List.of(
+                item(owner, "Дрель ударная", "Мощная ударная дрель"),
+                item(owner, "Шуруповёрт", "Удобнее, чем дрель"),
+                item(owner, "Мини-дрель", "Для моделизма"),
+                item(owner, "Дрель-миксер", "Для строительных смесей"),
+                item(owner, "ДРЕЛЬ", "Обычная"),
+                item(owner, "Drill", "Cordless DRILL, 18V"),
+                item(owner, "Скидка 50%", "Лобзик_по дереву"),
+                Item.builder().name("Дрель старая").description("Сломана").available(false).owner(owner).build()
+        );
+        for (Item it : dataset) {
+            itemRepository.save(it);
+            inMemory.save(Item.builder()
+                    .name(it.getName())
+                    .description(it.getDescription())
+                    .available(it.getAvailable())
+                    .owner(owner)
+                    .build());
+        }
+
+        for (String text : List.of("дрель", "ДрЕлЬ", "рель", "е", "ль у", "ill", "v", "д_ель", "%", "_",
+                "50%", "к_по", "старая", "нет такого")) {
+            assertThat(names(inMemory.search(text, PageRequest.of(0, 100)).getContent()))
+                    .as("search '%s'", text)
+                    .containsExactlyElementsOf(names(itemRepository.search(text, PageRequest.of(0, 100)).getContent()));
+        }
+    }
+
+    private static List<String> names(List<Item> items) {
+        return items.stream().map(Item::getName).toList();
+    }
+
+    private static Item item(User owner, String name, String description) {
+        return Item.builder()
+                .name(name)
+                .description(description)
+                .available(true)
+                .owner(owner)
+                .build();
+    }
 }
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+/**
+ * Таймеры сервисов с тегом state и число SQL-выражений на HTTP-запрос (включая JdbcTemplate).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+class ServiceMetricsTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void serviceCall_shouldBeTimedWithState() {
+        User user = userRepository.save(User.builder().name("Metered").email("metered@test.io").build());
+
+        bookingService.listForUser(user.getId(), BookingState.PAST, 0, 10);
+
+        Timer timer = registry.find(ServiceMetricsAspect.METRIC)
+                .tag("service", "BookingServiceImpl")
+                .tag("method", "listForUser")
+                .tag("state", "PAST")
+                .tag("exception", "none")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void httpRequest_shouldRecordQueryCount() throws Exception {
+        User user = userRepository.save(User.builder().name("Http").email("http-metered@test.io").build());
+
+        mvc.perform(get("/users/{id}", user.getId()))
+                .andExpect(status().isOk());
+
+        DistributionSummary queries = registry.find(QueryCountInterceptor.METRIC)
+                .tag("uri", "/users/{id}")
+                .summary();
+        assertThat(queries).isNotNull();
+        assertThat(queries.count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void queryCounter_shouldSeeHibernateAndJdbcTemplateBatches() {
+        User user = userRepository.save(User.builder().name("Counted").email("counted@test.io").build());
+        QueryCounter.reset();
+
+        userRepository.findByEmail("counted@test.io");
+        jdbcTemplate.batchUpdate("UPDATE users SET name = ? WHERE id = ?",
+                List.of(new Object[]{"A", user.getId()}, new Object[]{"B", user.getId()}));
+
+        // поиск по email — flush сохранения и SELECT; батч — одно выражение
+        assertThat(QueryCounter.current()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+/**
+ * Кэш пользователей: повторное чтение без запроса, сброс при изменении и удалении;
+ * удаление пользователя сбрасывает из кэша вещей только его вещи.
+ */
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class UserServiceImplTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(User.builder().name("Cached").email("cached@test.io").build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void getById_shouldHitDatabaseOnce() {
+        userService.getById(user.getId());
+        userService.getById(user.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(user.getId())).isNotNull();
+    }
+
+    @Test
+    void update_shouldEvictCachedUser() {
+        userService.getById(user.getId());
+
+        userService.update(user.getId(), User.builder().name("Renamed").build());
+
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(user.getId())).isNull();
+        assertThat(userService.getById(user.getId()).getName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void deleteById_shouldEvictCachedUser() {
+        userService.getById(user.getId());
+
+        userService.deleteById(user.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.getById(user.getId()));
+    }
+
+    @Test
+    void deleteById_shouldEvictOnlyOwnItemsFromItemCache() {
+        User other = userRepository.save(User.builder().name("Other").email("other@test.io").build());
+        Item own = itemRepository.save(Item.builder().name("Своя").description("Своя").available(true).owner(user).build());
+        Item foreign = itemRepository.save(
+                Item.builder().name("Чужая").description("Чужая").available(true).owner(other).build());
+        entityManager.flush();
+        entityManager.clear();
+        itemRepository.findCachedById(own.getId());
+        itemRepository.findCachedById(foreign.getId());
+
+        userService.deleteById(user.getId());
+
+        assertThat(cacheManager.getCache(CacheConfig.ITEMS).get(own.getId())).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.ITEMS).get(foreign.getId())).isNotNull();
+    }
+}